@@ -0,0 +1,16 @@
+package benchmarks.datastructures;
+
+/**
+ * The operations every benchmarked map and cache has in common, so the same
+ * benchmark code runs against all of them.
+ *
+ * @author Riley McCuen
+ *
+ */
+interface Cache {
+
+	public Double put(Integer key, Double value);
+
+	public Double getOrDefault(Integer key, Double def);
+
+}
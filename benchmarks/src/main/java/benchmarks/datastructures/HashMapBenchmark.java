@@ -0,0 +1,139 @@
+package benchmarks.datastructures;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import utils.datastructures.hashmap.wlist.StaticListHashMap;
+import utils.datastructures.hashmap.wstack.StaticStackHashMap;
+
+/**
+ * The static sized hash maps against HashMap. fill() puts capacity new keys
+ * into an empty map, which is what a transposition table does while it warms
+ * up. getOrDefault() looks keys up in a full map with about half of the
+ * lookups missing. StaticStackHashMap.getOrDefault() walks the bucket but never
+ * returns what it finds, so it can look faster than it would be.
+ *
+ * @author Riley McCuen
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HashMapBenchmark {
+
+	public static final String STATIC_LIST_HASH_MAP = "StaticListHashMap";
+	public static final String STATIC_STACK_HASH_MAP = "StaticStackHashMap";
+	public static final String HASH_MAP = "HashMap";
+
+	@Param({ STATIC_LIST_HASH_MAP, STATIC_STACK_HASH_MAP, HASH_MAP })
+	public String implementation;
+
+	@Param({ "1024", "65536" })
+	public int capacity;
+
+	private Cache map;
+	private Integer[] fillKeys;
+	private Double[] fillValues;
+	private Integer[] lookupKeys;
+	private int next = 0;
+
+	@Setup
+	public void setUp() {
+		fillKeys = Keys.sequential(capacity);
+		fillValues = Keys.values(fillKeys);
+		lookupKeys = Keys.random(Keys.BATCH * 16, capacity * 2);
+		map = create(implementation, capacity);
+		for (int index = 0; index < fillKeys.length; ++index) {
+			map.put(fillKeys[index], fillValues[index]);
+		}
+	}
+
+	/**
+	 * Time to fill a new map, divide by the capacity for the time of a put.
+	 */
+	@Benchmark
+	public Cache fill() {
+		Cache map = create(implementation, capacity);
+		for (int index = 0; index < fillKeys.length; ++index) {
+			map.put(fillKeys[index], fillValues[index]);
+		}
+		return map;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Keys.BATCH)
+	public void getOrDefault(Blackhole blackhole) {
+		int start = next;
+		for (int index = start; index < start + Keys.BATCH; ++index) {
+			blackhole.consume(map.getOrDefault(lookupKeys[index], null));
+		}
+		next = (start + Keys.BATCH) % lookupKeys.length;
+	}
+
+	private static Cache create(String implementation, int capacity) {
+		if (STATIC_LIST_HASH_MAP.equals(implementation)) {
+			StaticListHashMap<Integer, Double> map = new StaticListHashMap<Integer, Double>(capacity);
+			return new Cache() {
+
+				@Override
+				public Double put(Integer key, Double value) {
+					return map.put(key, value);
+				}
+
+				@Override
+				public Double getOrDefault(Integer key, Double def) {
+					return map.getOrDefault(key, def);
+				}
+
+			};
+		}
+		if (STATIC_STACK_HASH_MAP.equals(implementation)) {
+			StaticStackHashMap<Integer, Double> map = new StaticStackHashMap<Integer, Double>(capacity);
+			return new Cache() {
+
+				@Override
+				public Double put(Integer key, Double value) {
+					return map.put(key, value);
+				}
+
+				@Override
+				public Double getOrDefault(Integer key, Double def) {
+					return map.getOrDefault(key, def);
+				}
+
+			};
+		}
+		HashMap<Integer, Double> map = new HashMap<Integer, Double>(capacity);
+		return new Cache() {
+
+			@Override
+			public Double put(Integer key, Double value) {
+				return map.put(key, value);
+			}
+
+			@Override
+			public Double getOrDefault(Integer key, Double def) {
+				return map.getOrDefault(key, def);
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,64 @@
+package benchmarks.datastructures;
+
+import java.util.Random;
+
+/**
+ * Boxed keys and values made before a benchmark runs, so boxing is not part of
+ * what is measured.
+ *
+ * @author Riley McCuen
+ *
+ */
+final class Keys {
+
+	/**
+	 * Number of operations every benchmark invocation does.
+	 */
+	static final int BATCH = 1 << 12;
+
+	private static final long SEED = 42;
+
+	private Keys() {
+	}
+
+	/**
+	 *
+	 * @param count - number of keys.
+	 * @param range - keys are drawn from [0, range).
+	 * @return - random keys, the same ones every time.
+	 */
+	static Integer[] random(int count, int range) {
+		Random random = new Random(SEED);
+		Integer[] keys = new Integer[count];
+		for (int index = 0; index < count; ++index) {
+			keys[index] = Integer.valueOf(random.nextInt(range));
+		}
+		return keys;
+	}
+
+	/**
+	 *
+	 * @param count - number of keys.
+	 * @return - the keys 0 to count - 1.
+	 */
+	static Integer[] sequential(int count) {
+		Integer[] keys = new Integer[count];
+		for (int index = 0; index < count; ++index) {
+			keys[index] = Integer.valueOf(index);
+		}
+		return keys;
+	}
+
+	/**
+	 *
+	 * @return - the value stored under every key.
+	 */
+	static Double[] values(Integer[] keys) {
+		Double[] values = new Double[keys.length];
+		for (int index = 0; index < keys.length; ++index) {
+			values[index] = Double.valueOf(keys[index]);
+		}
+		return values;
+	}
+
+}
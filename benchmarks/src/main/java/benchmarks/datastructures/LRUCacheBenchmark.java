@@ -0,0 +1,109 @@
+package benchmarks.datastructures;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import utils.datastructures.lrucache.LRUMap;
+import utils.datastructures.testing.LRUCache;
+
+/**
+ * LRUMap against the LinkedHashMap based LRUCache. Every operation looks a key
+ * up and puts it in if it is missing, with keys drawn from twice the capacity
+ * so about half of the lookups miss and evict the least recently used entry.
+ *
+ * @author Riley McCuen
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LRUCacheBenchmark {
+
+	public static final String LRU_MAP = "LRUMap";
+	public static final String LINKED_HASH_MAP = "LinkedHashMap";
+
+	@Param({ LRU_MAP, LINKED_HASH_MAP })
+	public String implementation;
+
+	@Param({ "1024", "65536" })
+	public int capacity;
+
+	private Cache cache;
+	private Integer[] keys;
+	private Double[] values;
+	private int next = 0;
+
+	@Setup
+	public void setUp() {
+		cache = create(implementation, capacity);
+		keys = Keys.random(Keys.BATCH * 16, capacity * 2);
+		values = Keys.values(keys);
+		for (int index = 0; index < keys.length; ++index) {
+			cache.put(keys[index], values[index]);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Keys.BATCH)
+	public void getOrPut(Blackhole blackhole) {
+		int start = next;
+		for (int index = start; index < start + Keys.BATCH; ++index) {
+			Double value = cache.getOrDefault(keys[index], null);
+			if (value == null) {
+				value = cache.put(keys[index], values[index]);
+			}
+			blackhole.consume(value);
+		}
+		next = (start + Keys.BATCH) % keys.length;
+	}
+
+	private static Cache create(String implementation, int capacity) {
+		if (LRU_MAP.equals(implementation)) {
+			LRUMap<Integer, Double> map = new LRUMap<Integer, Double>(capacity);
+			return new Cache() {
+
+				@Override
+				public Double put(Integer key, Double value) {
+					return map.put(key, value);
+				}
+
+				@Override
+				public Double getOrDefault(Integer key, Double def) {
+					return map.getOrDefault(key, def);
+				}
+
+			};
+		}
+		LRUCache map = new LRUCache(capacity);
+		return new Cache() {
+
+			@Override
+			public Double put(Integer key, Double value) {
+				return map.put(key, value);
+			}
+
+			@Override
+			public Double getOrDefault(Integer key, Double def) {
+				return map.getOrDefault(key, def);
+			}
+
+		};
+	}
+
+}
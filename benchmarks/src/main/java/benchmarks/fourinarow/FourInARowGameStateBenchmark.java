@@ -0,0 +1,101 @@
+package benchmarks.fourinarow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import minimax.fourinarow.core.arrays.core.FourInARowDeepCopier;
+import minimax.fourinarow.core.arrays.core.FourInARowEvaluationFunction;
+import minimax.fourinarow.core.arrays.core.FourInARowGameState;
+import minimax.fourinarow.core.arrays.core.FourInARowIncrementalEvaluationFunction;
+import minimax.fourinarow.core.arrays.core.FourInARowMove;
+import minimax.fourinarow.core.arrays.core.FourInARowMoveGeneration;
+
+/**
+ * Benchmarks of the operations the search does at every node of the 2D array
+ * based Four In A Row game-state.
+ *
+ * @author Riley McCuen
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FourInARowGameStateBenchmark {
+
+	@Param({ Positions.EMPTY, Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME })
+	public String position;
+
+	private FourInARowGameState gameState;
+	private final FourInARowEvaluationFunction evaluator = new FourInARowEvaluationFunction();
+	private final FourInARowIncrementalEvaluationFunction incrementalEvaluator = new FourInARowIncrementalEvaluationFunction();
+	private final FourInARowMoveGeneration moveGenerator = new FourInARowMoveGeneration();
+	private final FourInARowDeepCopier copier = new FourInARowDeepCopier();
+	private final List<FourInARowMove> moves = new ArrayList<FourInARowMove>();
+	private int[] moveBuffer;
+
+	@Setup
+	public void setUp() {
+		gameState = Positions.createGameState(position);
+		for (FourInARowMove move : moveGenerator.generateMoves(gameState)) {
+			moves.add(move);
+		}
+		moveBuffer = new int[moveGenerator.getMaximumNumberOfMoves()];
+	}
+
+	@Benchmark
+	public int evaluate() {
+		return evaluator.evaluate(gameState, 100, -100);
+	}
+
+	@Benchmark
+	public int evaluateIncremental() {
+		return incrementalEvaluator.evaluate(gameState, 100, -100);
+	}
+
+	@Benchmark
+	public void generateMoves(Blackhole blackhole) {
+		for (FourInARowMove move : moveGenerator.generateMoves(gameState)) {
+			blackhole.consume(move);
+		}
+	}
+
+	@Benchmark
+	public int generateMovesBuffered() {
+		return moveGenerator.generateMoves(gameState, moveBuffer);
+	}
+
+	/**
+	 * Makes and undoes every move of the position.
+	 */
+	@Benchmark
+	public void makeUndo(Blackhole blackhole) {
+		for (FourInARowMove move : moves) {
+			gameState.makeMove(move);
+			blackhole.consume(gameState.getKey());
+			gameState.undoMove(move);
+		}
+	}
+
+	@Benchmark
+	public FourInARowGameState deepCopy() {
+		return copier.deepCopy(gameState);
+	}
+
+}
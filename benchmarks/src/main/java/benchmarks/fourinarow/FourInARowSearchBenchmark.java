@@ -0,0 +1,93 @@
+package benchmarks.fourinarow;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import minimax.fourinarow.core.arrays.agents.FourInARowAgent;
+import minimax.fourinarow.core.arrays.core.FourInARowMove;
+import minimax.fourinarow.core.bitboard.FourInARowBitboardAgent;
+import utils.implementation.minimax.notthreadsafe.AbstractMiniMaxAgent;
+import utils.implementation.minimax.tables.TranspositionTable;
+
+/**
+ * Fixed depth searches of the canonical positions. The plain configuration is
+ * alpha-beta on its own, the enhanced one adds a transposition table, Principal
+ * Variation Search and move ordering. The transposition table is cleared before
+ * every search so every search does the same work.
+ *
+ * @author Riley McCuen
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FourInARowSearchBenchmark {
+
+	public static final String ARRAYS = "arrays";
+	public static final String BITBOARD = "bitboard";
+
+	public static final String PLAIN = "plain";
+	public static final String ENHANCED = "enhanced";
+
+	private static final int NUMBER_OF_BUCKETS = 1 << 18;
+
+	@Param({ ARRAYS, BITBOARD })
+	public String representation;
+
+	@Param({ Positions.EMPTY, Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME })
+	public String position;
+
+	@Param({ "6", "8" })
+	public int depth;
+
+	@Param({ PLAIN, ENHANCED })
+	public String configuration;
+
+	private AbstractMiniMaxAgent<FourInARowMove, ?> agent;
+	private TranspositionTable transpositionTable;
+	private boolean findMax;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		if (ARRAYS.equals(representation)) {
+			agent = new FourInARowAgent(Positions.createGameState(position));
+		} else {
+			agent = new FourInARowBitboardAgent(Positions.createBitboardGameState(position));
+		}
+		if (ENHANCED.equals(configuration)) {
+			transpositionTable = new TranspositionTable(NUMBER_OF_BUCKETS);
+			agent.setTranspositionTable(transpositionTable);
+			agent.setPrincipalVariationSearch(true);
+			agent.setMoveOrdering(true);
+		}
+		findMax = Positions.getColumns(position).length % 2 == 0;
+	}
+
+	@Setup(Level.Invocation)
+	public void clearTranspositionTable() {
+		if (transpositionTable != null) {
+			transpositionTable.clear();
+		}
+	}
+
+	@Benchmark
+	public FourInARowMove search() {
+		return agent.search(depth, findMax);
+	}
+
+}
@@ -0,0 +1,84 @@
+package benchmarks.fourinarow;
+
+import java.util.Arrays;
+
+import minimax.fourinarow.core.arrays.core.FourInARowGameState;
+import minimax.fourinarow.core.arrays.core.FourInARowMove;
+import minimax.fourinarow.core.arrays.core.Piece;
+import minimax.fourinarow.core.bitboard.FourInARowBitboardGameState;
+
+/**
+ * The canonical Four In A Row positions every benchmark is run on. Every
+ * position is the columns that are played from the empty board, so the same
+ * position can be built for every game-state implementation. None of the
+ * positions is over.
+ *
+ * @author Riley McCuen
+ *
+ */
+public final class Positions {
+
+	public static final String EMPTY = "empty";
+	public static final String OPENING = "opening";
+	public static final String MIDDLEGAME = "middlegame";
+	public static final String ENDGAME = "endgame";
+
+	private Positions() {
+	}
+
+	/**
+	 *
+	 * @param position - one of the position names.
+	 * @return - the columns that are played to reach the position.
+	 */
+	public static int[] getColumns(String position) {
+		switch (position) {
+		case EMPTY:
+			return new int[] {};
+		case OPENING:
+			return new int[] { 3, 3, 2, 4 };
+		case MIDDLEGAME:
+			return new int[] { 3, 3, 2, 4, 4, 2, 1, 5, 5, 3, 6, 0 };
+		case ENDGAME:
+			return new int[] { 3, 3, 2, 4, 4, 2, 1, 5, 5, 3, 6, 0, 2, 5, 6, 5, 0, 4, 5, 0, 5, 3, 4, 4, 1, 0 };
+		default:
+			throw new IllegalArgumentException("Unknown position: " + position);
+		}
+	}
+
+	/**
+	 *
+	 * @param position - one of the position names.
+	 * @return - a new 2D array based game-state of the position.
+	 */
+	public static FourInARowGameState createGameState(String position) {
+		FourInARowGameState gameState = new FourInARowGameState(0, createEmptyBoard(), Piece.PLAYER_ONE);
+		for (int column : getColumns(position)) {
+			gameState.makeMove(new FourInARowMove(column));
+		}
+		return gameState;
+	}
+
+	/**
+	 *
+	 * @param position - one of the position names.
+	 * @return - a new bitboard based game-state of the position.
+	 */
+	public static FourInARowBitboardGameState createBitboardGameState(String position) {
+		FourInARowBitboardGameState gameState = new FourInARowBitboardGameState(0, createEmptyBoard(),
+				Piece.PLAYER_ONE);
+		for (int column : getColumns(position)) {
+			gameState.makeMove(new FourInARowMove(column));
+		}
+		return gameState;
+	}
+
+	private static Piece[][] createEmptyBoard() {
+		Piece[][] board = new Piece[FourInARowGameState.ROWS][FourInARowGameState.COLUMNS];
+		for (Piece[] row : board) {
+			Arrays.fill(row, Piece.__EMPTY___);
+		}
+		return board;
+	}
+
+}
@@ -0,0 +1,98 @@
+package minimax.fourinarow.core.arrays.agents;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import minimax.fourinarow.core.arrays.core.FourInARowEvaluationFunction;
+import minimax.fourinarow.core.arrays.core.FourInARowGameState;
+import minimax.fourinarow.core.arrays.core.FourInARowMove;
+import minimax.fourinarow.core.arrays.core.Piece;
+
+/**
+ * Checks that the root parallel Agent scores forced wins and losses the same
+ * as the serial search, which counts their distance from the root.
+ *
+ * @author Riley McCuen
+ *
+ */
+public class FourInARowRootParallelAgentTest {
+
+	private static final int DEPTH = 6;
+	private static final int POSITIONS = 33;
+
+	private static ExecutorService workers;
+
+	@BeforeClass
+	public static void startWorkers() {
+		workers = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterClass
+	public static void stopWorkers() {
+		workers.shutdownNow();
+	}
+
+	@Test
+	public void forcedWinsScoreTheSameAsTheSerialSearch() throws InterruptedException {
+		FourInARowRootParallelAgent parallel = new FourInARowRootParallelAgent(workers);
+		int proven = 0;
+		for (FourInARowGameState gameState : createPositions()) {
+			boolean findMax = gameState.getCurrentPlayer() == Piece.PLAYER_ONE;
+			FourInARowAgent serial = new FourInARowAgent(gameState);
+			int expected = serial.search(DEPTH, findMax).getValue();
+			if (expected <= 100 && expected >= -100) {
+				continue;
+			}
+			proven += 1;
+			assertEquals(gameState.toString(), expected, parallel.search(gameState, DEPTH, findMax).getValue());
+		}
+		assertTrue("No forced wins among the positions", proven > 0);
+	}
+
+	/**
+	 *
+	 * @return - game-states reached by random moves that are not over.
+	 */
+	private static List<FourInARowGameState> createPositions() {
+		FourInARowEvaluationFunction evaluator = new FourInARowEvaluationFunction();
+		Random random = new Random(11);
+		List<FourInARowGameState> positions = new ArrayList<FourInARowGameState>();
+		while (positions.size() < POSITIONS) {
+			FourInARowGameState gameState = new FourInARowGameState(0, createEmptyBoard(), Piece.PLAYER_ONE);
+			int plies = 8 + random.nextInt(20);
+			boolean over = false;
+			for (int ply = 0; ply < plies && !over; ++ply) {
+				int column;
+				do {
+					column = random.nextInt(FourInARowGameState.COLUMNS);
+				} while (gameState.getNextOpenRowInColumn(column) < 0);
+				gameState.makeMove(new FourInARowMove(column));
+				over = Math.abs(evaluator.evaluate(gameState, 100, -100)) == 100;
+			}
+			if (!over) {
+				positions.add(gameState);
+			}
+		}
+		return positions;
+	}
+
+	private static Piece[][] createEmptyBoard() {
+		Piece[][] board = new Piece[FourInARowGameState.ROWS][FourInARowGameState.COLUMNS];
+		for (Piece[] row : board) {
+			Arrays.fill(row, Piece.__EMPTY___);
+		}
+		return board;
+	}
+
+}
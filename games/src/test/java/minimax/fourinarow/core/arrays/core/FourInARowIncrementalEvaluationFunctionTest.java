@@ -0,0 +1,75 @@
+package minimax.fourinarow.core.arrays.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that the incremental evaluation gives the same values as the standard
+ * evaluation with the default terminal evaluations, after every move and undo
+ * of random games.
+ *
+ * @author Riley McCuen
+ *
+ */
+public class FourInARowIncrementalEvaluationFunctionTest {
+
+	private static final int GAMES = 200;
+	private static final int POSITIVE_TERMINAL_EVALUATION = 100;
+	private static final int NEGATIVE_TERMINAL_EVALUATION = -100;
+
+	private final FourInARowEvaluationFunction standard = new FourInARowEvaluationFunction();
+	private final FourInARowIncrementalEvaluationFunction incremental = new FourInARowIncrementalEvaluationFunction();
+
+	@Test
+	public void randomGamesEvaluateTheSame() {
+		Random random = new Random(5);
+		for (int game = 0; game < GAMES; ++game) {
+			FourInARowGameState gameState = new FourInARowGameState(0, createEmptyBoard(), Piece.PLAYER_ONE);
+			List<FourInARowMove> moves = new ArrayList<FourInARowMove>();
+			boolean over = false;
+			while (!over && moves.size() < FourInARowGameState.ROWS * FourInARowGameState.COLUMNS) {
+				int column;
+				do {
+					column = random.nextInt(FourInARowGameState.COLUMNS);
+				} while (gameState.getNextOpenRowInColumn(column) < 0);
+				FourInARowMove move = new FourInARowMove(column);
+				gameState.makeMove(move);
+				moves.add(move);
+				int value = assertSameEvaluation(gameState);
+				assertSameEvaluation(new FourInARowGameState(gameState.getPlyNumber(), gameState.getBoard(),
+						gameState.getCurrentPlayer()));
+				over = value == POSITIVE_TERMINAL_EVALUATION || value == NEGATIVE_TERMINAL_EVALUATION;
+			}
+			for (int index = moves.size() - 1; index >= 0; --index) {
+				gameState.undoMove(moves.get(index));
+				assertSameEvaluation(gameState);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return - the value both evaluations gave the game-state.
+	 */
+	private int assertSameEvaluation(FourInARowGameState gameState) {
+		int expected = standard.evaluate(gameState, POSITIVE_TERMINAL_EVALUATION, NEGATIVE_TERMINAL_EVALUATION);
+		assertEquals(gameState.toString(), expected,
+				incremental.evaluate(gameState, POSITIVE_TERMINAL_EVALUATION, NEGATIVE_TERMINAL_EVALUATION));
+		return expected;
+	}
+
+	private static Piece[][] createEmptyBoard() {
+		Piece[][] board = new Piece[FourInARowGameState.ROWS][FourInARowGameState.COLUMNS];
+		for (Piece[] row : board) {
+			Arrays.fill(row, Piece.__EMPTY___);
+		}
+		return board;
+	}
+
+}
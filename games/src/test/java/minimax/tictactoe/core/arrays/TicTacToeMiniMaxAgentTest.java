@@ -0,0 +1,58 @@
+package minimax.tictactoe.core.arrays;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import minimax.fourinarow.core.arrays.core.Piece;
+import utils.implementation.minimax.core.EndgameSolver;
+
+/**
+ * Checks that the endgame solver sees the wins of Tic Tac Toe, which it can
+ * only do if the evaluation function returns the terminal evaluations.
+ *
+ * @author Riley McCuen
+ *
+ */
+public class TicTacToeMiniMaxAgentTest {
+
+	private static final Piece X = Piece.PLAYER_ONE;
+	private static final Piece O = Piece.PLAYER_TWO;
+	private static final Piece E = Piece.__EMPTY___;
+
+	@Test
+	public void solverFindsAWinInOneOnARow() {
+		TicTacToeGameState gameState = new TicTacToeGameState(4,
+				new Piece[][] { { X, X, E }, { O, O, E }, { E, E, E } }, X);
+		assertWinningMove(gameState, true, 0, 2, EndgameSolver.WIN);
+	}
+
+	@Test
+	public void solverFindsAWinInOneOnAColumn() {
+		TicTacToeGameState gameState = new TicTacToeGameState(5,
+				new Piece[][] { { X, O, X }, { X, O, E }, { E, E, E } }, O);
+		assertWinningMove(gameState, false, 2, 1, EndgameSolver.LOSS);
+	}
+
+	@Test
+	public void evaluationReturnsTheTerminalEvaluations() {
+		TicTacToeEvaluationFunction evaluator = new TicTacToeEvaluationFunction();
+		assertEquals(100, evaluator.evaluate(new TicTacToeGameState(5,
+				new Piece[][] { { O, E, X }, { O, E, X }, { E, E, X } }, O), 100, -100));
+		assertEquals(-100, evaluator.evaluate(new TicTacToeGameState(6,
+				new Piece[][] { { X, O, X }, { X, O, E }, { E, O, E } }, X), 100, -100));
+		assertEquals(0, evaluator.evaluate(new TicTacToeGameState(4,
+				new Piece[][] { { X, X, E }, { O, O, E }, { E, E, E } }, X), 100, -100));
+	}
+
+	private static void assertWinningMove(TicTacToeGameState gameState, boolean findMax, int row, int column,
+			int value) {
+		TicTacToeMiniMaxAgent agent = new TicTacToeMiniMaxAgent(gameState);
+		agent.setEndgameSolver(TicTacToeGameState.MAXIMUM_NUMBER_OF_PLYS + 1, null);
+		TicTacToeMove move = agent.search(TicTacToeGameState.MAXIMUM_NUMBER_OF_PLYS, findMax);
+		assertEquals(row, move.getRow());
+		assertEquals(column, move.getColumn());
+		assertEquals(value, move.getValue());
+	}
+
+}
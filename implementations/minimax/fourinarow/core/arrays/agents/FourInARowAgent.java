@@ -61,6 +61,11 @@ public class FourInARowAgent extends AbstractMiniMaxAgent<FourInARowMove, FourIn
 		return super.searchIterativeDeepening(minDepth, maxDepth, findMax, time);
 	}
 
+	@Override
+	protected int getRemainingPlies() {
+		return FourInARowGameState.MAX_NUMBER_OF_PLYS - gameState.getPlyNumber();
+	}
+
 	@Override
 	public String toString() {
 		return "I am a Four In A Row playing minimax agent";
@@ -0,0 +1,91 @@
+package minimax.fourinarow.core.arrays.book;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import minimax.fourinarow.core.arrays.agents.FourInARowAgent;
+import minimax.fourinarow.core.arrays.core.FourInARowGameState;
+import minimax.fourinarow.core.arrays.core.FourInARowMove;
+import minimax.fourinarow.core.arrays.core.FourInARowMoveGeneration;
+import minimax.fourinarow.core.arrays.core.Piece;
+import utils.implementation.minimax.book.OpeningBook;
+import utils.implementation.minimax.book.OpeningBookGenerator;
+import utils.implementation.minimax.tables.TranspositionTable;
+
+/**
+ * Generates and loads opening books for Four In A Row that start from the empty
+ * board.
+ * 
+ * @author Riley McCuen
+ *
+ */
+public class FourInARowOpeningBook {
+
+	public static final int DEFAULT_PLIES = 4;
+	public static final int DEFAULT_DEPTH = 12;
+
+	private FourInARowOpeningBook() {
+	}
+
+	/**
+	 * 
+	 * @return - a new game-state with an empty board and player one to move.
+	 */
+	private static FourInARowGameState emptyState() {
+		Piece[][] board = new Piece[FourInARowGameState.ROWS][FourInARowGameState.COLUMNS];
+		for (Piece[] row : board) {
+			Arrays.fill(row, Piece.__EMPTY___);
+		}
+		return new FourInARowGameState(0, board, Piece.PLAYER_ONE);
+	}
+
+	/**
+	 * Searches every game-state less than plies moves into the game and writes
+	 * the book.
+	 * 
+	 * @param file  - the book to write.
+	 * @param plies - how many plies deep the book goes.
+	 * @param depth - the depth every game-state is searched to.
+	 * @return - the number of game-states written.
+	 * @throws IOException
+	 */
+	public static int generate(Path file, int plies, int depth) throws IOException {
+		FourInARowGameState gameState = emptyState();
+		FourInARowAgent agent = new FourInARowAgent(gameState);
+		agent.setTranspositionTable(new TranspositionTable());
+		agent.setPrincipalVariationSearch(true);
+		agent.setMoveOrdering(true);
+		return new OpeningBookGenerator<FourInARowMove, FourInARowGameState>(gameState, agent,
+				new FourInARowMoveGeneration()).generate(file, plies, depth, true);
+	}
+
+	/**
+	 * 
+	 * @param file - a book written by generate().
+	 * @return - the book.
+	 * @throws IOException
+	 */
+	public static OpeningBook<FourInARowMove, FourInARowGameState> load(Path file) throws IOException {
+		return new OpeningBook<FourInARowMove, FourInARowGameState>(file, new FourInARowMoveGeneration());
+	}
+
+	/**
+	 * Writes a book, the arguments are the file followed by the optional number of
+	 * plies and search depth.
+	 * 
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		Path file = Paths.get(args.length > 0 ? args[0] : "fourinarow.book");
+		int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+		int depth = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+		long start = System.currentTimeMillis();
+		int size = generate(file, plies, depth);
+		System.out.println("Wrote " + size + " game-states to " + file + " in "
+				+ (System.currentTimeMillis() - start) + "ms");
+	}
+
+}
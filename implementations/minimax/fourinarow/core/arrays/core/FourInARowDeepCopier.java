@@ -6,8 +6,7 @@ public class FourInARowDeepCopier implements DeepCopy<FourInARowGameState> {
 
 	@Override
 	public FourInARowGameState deepCopy(FourInARowGameState gameState) {
-		return new FourInARowGameState(gameState.getPlyNumber(), gameState.getBoard(), gameState.getCurrentPlayer(),
-				gameState.getNextOpenRowInColumns());
+		return new FourInARowGameState(gameState);
 	}
 
 }
@@ -51,10 +51,10 @@ public class FourInARowEvaluationFunction implements EvaluationFunction<FourInAR
 	 * 
 	 * @return The value of the check with the given initial row and column.
 	 */
-	private static int checkVerticalHeuristic(int row, int column, Piece[][] board) {
+	private static int checkVerticalHeuristic(int row, int column, FourInARowGameState gameState) {
 		int value = NO_VALUE;
 		for (int offset = 0; offset < MAXIMUM_OFFSET; ++offset) {
-			value = value + board[row + offset][column].getValue();
+			value = value + gameState.pieceAt(row + offset, column).getValue();
 		}
 		if (value == FOUR_IN_A_ROW_POS_VALUE || value == FOUR_IN_A_ROW_NEG_VALUE) {
 			return (value * TERMINAL_MULTIPLIER);
@@ -73,10 +73,10 @@ public class FourInARowEvaluationFunction implements EvaluationFunction<FourInAR
 	 * 
 	 * @return The value of the check with the given initial row and column.
 	 */
-	private static int checkHorizontalHeuristic(int row, int column, Piece[][] board) {
+	private static int checkHorizontalHeuristic(int row, int column, FourInARowGameState gameState) {
 		int value = NO_VALUE;
 		for (int offset = 0; offset < MAXIMUM_OFFSET; ++offset) {
-			value = value + board[row][column + offset].getValue();
+			value = value + gameState.pieceAt(row, column + offset).getValue();
 		}
 		if (value == FOUR_IN_A_ROW_POS_VALUE || value == FOUR_IN_A_ROW_NEG_VALUE) {
 			return (value * TERMINAL_MULTIPLIER);
@@ -95,10 +95,10 @@ public class FourInARowEvaluationFunction implements EvaluationFunction<FourInAR
 	 * 
 	 * @return The value of the check with the given initial row and column.
 	 */
-	private static int checkDiagonalUpHeuristic(int row, int column, Piece[][] board) {
+	private static int checkDiagonalUpHeuristic(int row, int column, FourInARowGameState gameState) {
 		int value = NO_VALUE;
 		for (int offset = 0; offset < MAXIMUM_OFFSET; ++offset) {
-			value = value + board[row + offset][column - offset].getValue();
+			value = value + gameState.pieceAt(row + offset, column - offset).getValue();
 		}
 		if (value == FOUR_IN_A_ROW_POS_VALUE || value == FOUR_IN_A_ROW_NEG_VALUE) {
 			return (value * TERMINAL_MULTIPLIER);
@@ -117,10 +117,10 @@ public class FourInARowEvaluationFunction implements EvaluationFunction<FourInAR
 	 * 
 	 * @return The value of the check with the given initial row and column.
 	 */
-	private static int checkDiagonalDownHeuristic(int row, int column, Piece[][] board) {
+	private static int checkDiagonalDownHeuristic(int row, int column, FourInARowGameState gameState) {
 		int value = NO_VALUE;
 		for (int offset = 0; offset < MAXIMUM_OFFSET; ++offset) {
-			value = value + board[row + offset][column + offset].getValue();
+			value = value + gameState.pieceAt(row + offset, column + offset).getValue();
 		}
 		if (value == FOUR_IN_A_ROW_POS_VALUE || value == FOUR_IN_A_ROW_NEG_VALUE) {
 			return (value * TERMINAL_MULTIPLIER);
@@ -147,28 +147,28 @@ public class FourInARowEvaluationFunction implements EvaluationFunction<FourInAR
 		for (int row = 0; row < FourInARowGameState.ROWS; ++row) {
 			for (int column = 0; column < FourInARowGameState.COLUMNS; ++column) {
 				if (row < MAX_ROW) {
-					int vert = checkVerticalHeuristic(row, column, gameState.getBoard());
+					int vert = checkVerticalHeuristic(row, column, gameState);
 					if (vert == positiveTerminalEvaluation || vert == negativeTerminalEvaluation) {
 						return vert;
 					}
 					evaluation = evaluation + vert;
 				}
 				if (column < MAX_COLUMN) {
-					int horiz = checkHorizontalHeuristic(row, column, gameState.getBoard());
+					int horiz = checkHorizontalHeuristic(row, column, gameState);
 					if (horiz == positiveTerminalEvaluation || horiz == negativeTerminalEvaluation) {
 						return horiz;
 					}
 					evaluation = evaluation + horiz;
 				}
 				if (column > MIN_COLUMN && row < MAX_ROW) {
-					int up = checkDiagonalUpHeuristic(row, column, gameState.getBoard());
+					int up = checkDiagonalUpHeuristic(row, column, gameState);
 					if (up == positiveTerminalEvaluation || up == negativeTerminalEvaluation) {
 						return up;
 					}
 					evaluation = evaluation + up;
 				}
 				if (column < MAX_COLUMN && row < MAX_ROW) {
-					int down = checkDiagonalDownHeuristic(row, column, gameState.getBoard());
+					int down = checkDiagonalDownHeuristic(row, column, gameState);
 					if (down == positiveTerminalEvaluation || down == negativeTerminalEvaluation) {
 						return down;
 					}
@@ -3,6 +3,7 @@ package minimax.fourinarow.core.arrays.core;
 import java.util.Arrays;
 
 import utils.implementation.core.AbstractGameState;
+import utils.implementation.core.ZobristTable;
 
 /**
  * 
@@ -18,6 +19,36 @@ public class FourInARowGameState extends AbstractGameState<FourInARowMove> {
 	public static int COLUMNS = 7;
 	public static int MAX_NUMBER_OF_PLYS = 42;
 
+	/**
+	 * Zobrist values for every piece on every square, squares are indexed by row *
+	 * COLUMNS + column and pieces by their ordinal.
+	 */
+	private static final ZobristTable ZOBRIST_TABLE = new ZobristTable(ROWS * COLUMNS, Piece.values().length);
+
+	/**
+	 * The board is left-right symmetric, the only symmetry is the mirror image.
+	 */
+	private static final int[][] SYMMETRIES = calculateSymmetries();
+
+	/**
+	 * Every contiguous four square window on the board, each window is four square
+	 * indices (row * COLUMNS + column). These are the same windows that
+	 * FourInARowEvaluationFunction checks.
+	 */
+	private static final int[][] WINDOWS = calculateWindows();
+
+	/**
+	 * For every square the indices of the windows that contain it.
+	 */
+	private static final int[][] SQUARE_WINDOWS = calculateSquareWindows();
+
+	/**
+	 * Sum of a window when it holds three of one player's pieces and an empty
+	 * square or four of one player's pieces.
+	 */
+	private static final int THREE_IN_A_ROW = 3;
+	private static final int FOUR_IN_A_ROW = 4;
+
 	/**
 	 * 2D array "Game Board" filled with pieces. Has dimensions ROWS X COLUMNS.
 	 */
@@ -29,12 +60,26 @@ public class FourInARowGameState extends AbstractGameState<FourInARowMove> {
 	 */
 	private int[] nextOpenRowInColumns;
 
+	/**
+	 * Incrementally maintained evaluation. Every window keeps the sum of the piece
+	 * values inside of it, heuristicValue is the number of windows with three
+	 * player one pieces and an empty square minus the number with three player two
+	 * pieces and an empty square, and the four counters hold how many windows are
+	 * full of a single player's pieces.
+	 */
+	private int[] windowSums;
+	private int heuristicValue;
+	private int playerOneFours;
+	private int playerTwoFours;
+
 	public FourInARowGameState(int plyNumber, Piece[][] board, Piece currentPlayer) {
-		super(plyNumber);
+		super(plyNumber, ZOBRIST_TABLE, SYMMETRIES);
 		this.board = board;
 		this.currentPlayer = currentPlayer;
 		this.nextOpenRowInColumns = new int[COLUMNS];
 		this.calculateNextOpenRowInColumns();
+		this.calculateZobristKey();
+		this.calculateWindowSums();
 	}
 
 	/**
@@ -45,10 +90,30 @@ public class FourInARowGameState extends AbstractGameState<FourInARowMove> {
 	 * @param nextOpenRowInColumns
 	 */
 	public FourInARowGameState(int plyNumber, Piece[][] board, Piece currentPlayer, int[] nextOpenRowInColumns) {
-		super(plyNumber);
+		super(plyNumber, ZOBRIST_TABLE, SYMMETRIES);
 		this.board = copyBoard(board);
 		this.currentPlayer = currentPlayer;
 		this.nextOpenRowInColumns = Arrays.copyOf(nextOpenRowInColumns, COLUMNS);
+		this.calculateZobristKey();
+		this.calculateWindowSums();
+	}
+
+	/**
+	 * Creates a deep copy of the given game-state including its Zobrist key and
+	 * window sums so nothing has to be recalculated.
+	 * 
+	 * @param gameState
+	 */
+	public FourInARowGameState(FourInARowGameState gameState) {
+		super(gameState.plyNumber, ZOBRIST_TABLE, SYMMETRIES);
+		this.board = copyBoard(gameState.board);
+		this.currentPlayer = gameState.currentPlayer;
+		this.nextOpenRowInColumns = Arrays.copyOf(gameState.nextOpenRowInColumns, COLUMNS);
+		this.copyZobristKeys(gameState);
+		this.windowSums = Arrays.copyOf(gameState.windowSums, WINDOWS.length);
+		this.heuristicValue = gameState.heuristicValue;
+		this.playerOneFours = gameState.playerOneFours;
+		this.playerTwoFours = gameState.playerTwoFours;
 	}
 
 	/**
@@ -76,6 +141,17 @@ public class FourInARowGameState extends AbstractGameState<FourInARowMove> {
 		return copyBoard(board);
 	}
 
+	/**
+	 * Read-only access to a single square that does not copy the board.
+	 * 
+	 * @param row    - row of the square where row 0 is the top row.
+	 * @param column - column of the square.
+	 * @return - the piece on the square.
+	 */
+	public Piece pieceAt(int row, int column) {
+		return board[row][column];
+	}
+
 	public Piece getCurrentPlayer() {
 		return currentPlayer;
 	}
@@ -106,7 +182,11 @@ public class FourInARowGameState extends AbstractGameState<FourInARowMove> {
 	 */
 	@Override
 	public void makeMove(FourInARowMove move) {
-		board[nextOpenRowInColumns[move.getColumn()]--][move.getColumn()] = currentPlayer;
+		int row = nextOpenRowInColumns[move.getColumn()]--;
+		board[row][move.getColumn()] = currentPlayer;
+		toggleZobristPiece(row * COLUMNS + move.getColumn(), currentPlayer.ordinal());
+		toggleZobristSideToMove();
+		updateWindowSums(row * COLUMNS + move.getColumn(), currentPlayer.getValue());
 		plyNumber++;
 		currentPlayer = Piece.swapPlayerPiece(currentPlayer);
 	}
@@ -117,9 +197,13 @@ public class FourInARowGameState extends AbstractGameState<FourInARowMove> {
 	 */
 	@Override
 	public void undoMove(FourInARowMove move) {
-		board[++nextOpenRowInColumns[move.getColumn()]][move.getColumn()] = Piece.__EMPTY___;
+		int row = ++nextOpenRowInColumns[move.getColumn()];
+		board[row][move.getColumn()] = Piece.__EMPTY___;
 		plyNumber--;
 		currentPlayer = Piece.swapPlayerPiece(currentPlayer);
+		toggleZobristPiece(row * COLUMNS + move.getColumn(), currentPlayer.ordinal());
+		toggleZobristSideToMove();
+		updateWindowSums(row * COLUMNS + move.getColumn(), -currentPlayer.getValue());
 	}
 
 	/**
@@ -136,9 +220,164 @@ public class FourInARowGameState extends AbstractGameState<FourInARowMove> {
 		}
 	}
 
+	/**
+	 * Calculates the Zobrist key of the whole board from scratch. Only needed when
+	 * a game-state is created, afterwards the key is updated by makeMove() and
+	 * undoMove().
+	 */
+	private void calculateZobristKey() {
+		clearZobristKeys();
+		for (int row = 0; row < ROWS; ++row) {
+			for (int column = 0; column < COLUMNS; ++column) {
+				if (board[row][column] != Piece.__EMPTY___) {
+					toggleZobristPiece(row * COLUMNS + column, board[row][column].ordinal());
+				}
+			}
+		}
+		if (currentPlayer == Piece.PLAYER_TWO) {
+			toggleZobristSideToMove();
+		}
+	}
+
+	/**
+	 * 
+	 * @return - the mirror image of every square.
+	 */
+	private static int[][] calculateSymmetries() {
+		int[] mirror = new int[ROWS * COLUMNS];
+		for (int row = 0; row < ROWS; ++row) {
+			for (int column = 0; column < COLUMNS; ++column) {
+				mirror[row * COLUMNS + column] = row * COLUMNS + COLUMNS - 1 - column;
+			}
+		}
+		return new int[][] { mirror };
+	}
+
+	/**
+	 * 
+	 * @return - every four square window on the board.
+	 */
+	private static int[][] calculateWindows() {
+		int[][] windows = new int[ROWS * COLUMNS * 4][];
+		int window = 0;
+		for (int row = 0; row < ROWS; ++row) {
+			for (int column = 0; column < COLUMNS; ++column) {
+				if (row < ROWS - 3) {
+					windows[window++] = calculateWindow(row, column, 1, 0);
+				}
+				if (column < COLUMNS - 3) {
+					windows[window++] = calculateWindow(row, column, 0, 1);
+				}
+				if (column > 2 && row < ROWS - 3) {
+					windows[window++] = calculateWindow(row, column, 1, -1);
+				}
+				if (column < COLUMNS - 3 && row < ROWS - 3) {
+					windows[window++] = calculateWindow(row, column, 1, 1);
+				}
+			}
+		}
+		return Arrays.copyOf(windows, window);
+	}
+
+	private static int[] calculateWindow(int row, int column, int rowStep, int columnStep) {
+		int[] window = new int[FOUR_IN_A_ROW];
+		for (int offset = 0; offset < FOUR_IN_A_ROW; ++offset) {
+			window[offset] = (row + offset * rowStep) * COLUMNS + column + offset * columnStep;
+		}
+		return window;
+	}
+
+	/**
+	 * 
+	 * @return - for every square the indices of the windows that contain it.
+	 */
+	private static int[][] calculateSquareWindows() {
+		int[][] squareWindows = new int[ROWS * COLUMNS][];
+		for (int square = 0; square < squareWindows.length; ++square) {
+			int count = 0;
+			int[] windows = new int[WINDOWS.length];
+			for (int window = 0; window < WINDOWS.length; ++window) {
+				for (int windowSquare : WINDOWS[window]) {
+					if (windowSquare == square) {
+						windows[count++] = window;
+					}
+				}
+			}
+			squareWindows[square] = Arrays.copyOf(windows, count);
+		}
+		return squareWindows;
+	}
+
+	/**
+	 * Calculates the sum of every window and the evaluation from scratch. Only
+	 * needed when a game-state is created from a board.
+	 */
+	private void calculateWindowSums() {
+		windowSums = new int[WINDOWS.length];
+		heuristicValue = 0;
+		playerOneFours = 0;
+		playerTwoFours = 0;
+		for (int row = 0; row < ROWS; ++row) {
+			for (int column = 0; column < COLUMNS; ++column) {
+				if (board[row][column] != Piece.__EMPTY___) {
+					updateWindowSums(row * COLUMNS + column, board[row][column].getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the value to every window that crosses the square and updates the
+	 * evaluation by the difference in the value of those windows.
+	 * 
+	 * @param square - the square that changed.
+	 * @param value  - the value of the piece placed, or the negated value of the
+	 *               piece removed.
+	 */
+	private void updateWindowSums(int square, int value) {
+		for (int window : SQUARE_WINDOWS[square]) {
+			int oldSum = windowSums[window];
+			int newSum = oldSum + value;
+			windowSums[window] = newSum;
+			heuristicValue += windowValue(newSum) - windowValue(oldSum);
+			if (newSum == FOUR_IN_A_ROW || oldSum == FOUR_IN_A_ROW) {
+				playerOneFours += newSum == FOUR_IN_A_ROW ? 1 : -1;
+			} else if (newSum == -FOUR_IN_A_ROW || oldSum == -FOUR_IN_A_ROW) {
+				playerTwoFours += newSum == -FOUR_IN_A_ROW ? 1 : -1;
+			}
+		}
+	}
+
+	private static int windowValue(int sum) {
+		if (sum == THREE_IN_A_ROW) {
+			return 1;
+		} else if (sum == -THREE_IN_A_ROW) {
+			return -1;
+		}
+		return 0;
+	}
+
+	/**
+	 * 
+	 * @return - the number of windows where player one has three pieces and the
+	 *         fourth square is empty minus the same number for player two.
+	 */
+	public int getHeuristicValue() {
+		return heuristicValue;
+	}
+
+	/**
+	 * 
+	 * @param player - either PLAYER_ONE or PLAYER_TWO.
+	 * @return - whether the player has four pieces in a row on the board.
+	 */
+	public boolean hasFourInARow(Piece player) {
+		return (player == Piece.PLAYER_ONE ? playerOneFours : playerTwoFours) > 0;
+	}
+
 	@Override
 	public int hashCode() {
-		return Arrays.hashCode(board);
+		return (int) (zobristKey ^ (zobristKey >>> 32));
 	}
 
 	@Override
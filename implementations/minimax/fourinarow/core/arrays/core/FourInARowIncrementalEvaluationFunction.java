@@ -0,0 +1,32 @@
+package minimax.fourinarow.core.arrays.core;
+
+import utils.implementation.core.EvaluationFunction;
+
+/**
+ * 
+ * Evaluation function for 2D array based Four In A Row that reads the evaluation
+ * that FourInARowGameState maintains in makeMove() and undoMove(), in O(1)
+ * instead of scanning every window on the board. Gives the same values as
+ * FourInARowEvaluationFunction only when the terminal evaluations are 100 and
+ * -100, the defaults of the Agents. FourInARowEvaluationFunction scores a four
+ * in a row as 100 or -100 and only returns it as a terminal evaluation if it is
+ * equal to one, this evaluation always returns the terminal evaluations.
+ * 
+ * @author Riley McCuen
+ *
+ */
+
+public class FourInARowIncrementalEvaluationFunction implements EvaluationFunction<FourInARowGameState> {
+
+	@Override
+	public int evaluate(FourInARowGameState gameState, int positiveTerminalEvaluation, int negativeTerminalEvaluation) {
+		if (gameState.hasFourInARow(Piece.PLAYER_ONE)) {
+			return positiveTerminalEvaluation;
+		}
+		if (gameState.hasFourInARow(Piece.PLAYER_TWO)) {
+			return negativeTerminalEvaluation;
+		}
+		return gameState.getHeuristicValue();
+	}
+
+}
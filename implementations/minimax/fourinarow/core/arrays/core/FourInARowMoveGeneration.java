@@ -2,17 +2,18 @@ package minimax.fourinarow.core.arrays.core;
 
 import java.util.LinkedList;
 
-import utils.implementation.core.MoveGeneration;
+import utils.implementation.core.BufferedMoveGeneration;
 
 /**
  * 
- * 2d array based Four In A Row move generation.
+ * 2d array based Four In A Row move generation. A move is encoded as its
+ * column.
  * 
  * @author Riley McCuen
  *
  */
 
-public class FourInARowMoveGeneration implements MoveGeneration<FourInARowMove, FourInARowGameState> {
+public class FourInARowMoveGeneration implements BufferedMoveGeneration<FourInARowMove, FourInARowGameState> {
 
 	/**
 	 * The column ordering that always picks the closest to center column that is
@@ -21,6 +22,16 @@ public class FourInARowMoveGeneration implements MoveGeneration<FourInARowMove,
 	 */
 	private static int[] CENTER_FOCUSED_COLUMN_ORDERING = new int[] { 3, 2, 4, 1, 5, 0, 6 };
 
+	/**
+	 * One shared move per column that encoded moves are turned back into.
+	 */
+	private static final FourInARowMove[] COLUMN_MOVES = new FourInARowMove[FourInARowGameState.COLUMNS];
+	static {
+		for (int column = 0; column < COLUMN_MOVES.length; ++column) {
+			COLUMN_MOVES[column] = new FourInARowMove(column);
+		}
+	}
+
 	/**
 	 * Returns a LinkedList of moves utilizing center focused column ordering.
 	 */
@@ -35,4 +46,34 @@ public class FourInARowMoveGeneration implements MoveGeneration<FourInARowMove,
 		return moveList;
 	}
 
+	/**
+	 * Writes the columns that are not full utilizing center focused column
+	 * ordering.
+	 */
+	@Override
+	public int generateMoves(FourInARowGameState gameState, int[] moves) {
+		int count = 0;
+		for (int column : CENTER_FOCUSED_COLUMN_ORDERING) {
+			if (gameState.getNextOpenRowInColumn(column) >= 0) {
+				moves[count++] = column;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public FourInARowMove getMove(int move) {
+		return COLUMN_MOVES[move];
+	}
+
+	@Override
+	public int encode(FourInARowMove move) {
+		return move.getColumn();
+	}
+
+	@Override
+	public int getMaximumNumberOfMoves() {
+		return FourInARowGameState.COLUMNS;
+	}
+
 }
@@ -0,0 +1,71 @@
+package minimax.fourinarow.core.bitboard;
+
+import minimax.fourinarow.core.arrays.core.FourInARowMove;
+import utils.implementation.core.EvaluationFunction;
+import utils.implementation.core.MoveGeneration;
+import utils.implementation.minimax.notthreadsafe.AbstractMiniMaxAgent;
+
+/**
+ * This is the Agent that should be instantiated for a bitboard based Four In A
+ * Row game. It is interchangeable with the 2D array based Agent but searches
+ * many more game-states per second.
+ * 
+ * @author Riley McCuen
+ *
+ */
+public class FourInARowBitboardAgent extends AbstractMiniMaxAgent<FourInARowMove, FourInARowBitboardGameState> {
+
+	public FourInARowBitboardAgent(FourInARowBitboardGameState gameState,
+			MoveGeneration<FourInARowMove, FourInARowBitboardGameState> moveGenerator,
+			EvaluationFunction<FourInARowBitboardGameState> evaluator) {
+		super(gameState, moveGenerator, evaluator);
+	}
+
+	/**
+	 * Initializes a new Four In A Row Agent with the standard bitboard based move
+	 * generation and evaluation functions.
+	 * 
+	 * @param gameState
+	 */
+	public FourInARowBitboardAgent(FourInARowBitboardGameState gameState) {
+		super(gameState, new FourInARowBitboardMoveGeneration(), new FourInARowBitboardEvaluationFunction());
+	}
+
+	/**
+	 * If the depth is trying to go beyond the maximum number of turns in the game
+	 * then it is reduced to the maximum depth left in the game.
+	 */
+	@Override
+	public FourInARowMove search(int depth, boolean findMax) {
+		if (depth + gameState.getPlyNumber() > FourInARowBitboardGameState.MAX_NUMBER_OF_PLYS) {
+			depth = FourInARowBitboardGameState.MAX_NUMBER_OF_PLYS - gameState.getPlyNumber();
+		}
+		return super.search(depth, findMax);
+	}
+
+	/**
+	 * If the depth is trying to go beyond the maximum number of turns in the game
+	 * then it is reduced to the maximum depth left in the game.
+	 */
+	@Override
+	public FourInARowMove searchIterativeDeepening(int minDepth, int maxDepth, boolean findMax, long time) {
+		if (minDepth + gameState.getPlyNumber() > FourInARowBitboardGameState.MAX_NUMBER_OF_PLYS) {
+			minDepth = FourInARowBitboardGameState.MAX_NUMBER_OF_PLYS - gameState.getPlyNumber();
+		}
+		if (maxDepth + gameState.getPlyNumber() > FourInARowBitboardGameState.MAX_NUMBER_OF_PLYS) {
+			maxDepth = FourInARowBitboardGameState.MAX_NUMBER_OF_PLYS - gameState.getPlyNumber();
+		}
+		return super.searchIterativeDeepening(minDepth, maxDepth, findMax, time);
+	}
+
+	@Override
+	protected int getRemainingPlies() {
+		return FourInARowBitboardGameState.MAX_NUMBER_OF_PLYS - gameState.getPlyNumber();
+	}
+
+	@Override
+	public String toString() {
+		return "I am a bitboard Four In A Row playing minimax agent";
+	}
+
+}
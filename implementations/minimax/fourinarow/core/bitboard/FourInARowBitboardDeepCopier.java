@@ -0,0 +1,13 @@
+package minimax.fourinarow.core.bitboard;
+
+import utils.implementation.core.DeepCopy;
+
+public class FourInARowBitboardDeepCopier implements DeepCopy<FourInARowBitboardGameState> {
+
+	@Override
+	public FourInARowBitboardGameState deepCopy(FourInARowBitboardGameState gameState) {
+		return new FourInARowBitboardGameState(gameState.getPlyNumber(), gameState.getPlayerOneBoard(),
+				gameState.getPlayerTwoBoard(), gameState.getHeights(), gameState.getCurrentPlayer());
+	}
+
+}
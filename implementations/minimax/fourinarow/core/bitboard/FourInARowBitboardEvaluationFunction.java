@@ -0,0 +1,36 @@
+package minimax.fourinarow.core.bitboard;
+
+import utils.implementation.core.EvaluationFunction;
+
+/**
+ * 
+ * The standard evaluation function for bitboard based Four In A Row.
+ * 
+ * @author Riley McCuen
+ *
+ */
+
+public class FourInARowBitboardEvaluationFunction implements EvaluationFunction<FourInARowBitboardGameState> {
+
+	/**
+	 * If a player has four in a row the matching terminal value is returned,
+	 * otherwise the value is the number of empty squares that would complete four
+	 * in a row for player one minus the number that would for player two.
+	 */
+	@Override
+	public int evaluate(FourInARowBitboardGameState gameState, int positiveTerminalEvaluation,
+			int negativeTerminalEvaluation) {
+		long playerOne = gameState.getPlayerOneBoard();
+		long playerTwo = gameState.getPlayerTwoBoard();
+		if (FourInARowBitboardGameState.isWin(playerOne)) {
+			return positiveTerminalEvaluation;
+		}
+		if (FourInARowBitboardGameState.isWin(playerTwo)) {
+			return negativeTerminalEvaluation;
+		}
+		long occupied = playerOne | playerTwo;
+		return Long.bitCount(FourInARowBitboardGameState.threats(playerOne, occupied))
+				- Long.bitCount(FourInARowBitboardGameState.threats(playerTwo, occupied));
+	}
+
+}
@@ -0,0 +1,330 @@
+package minimax.fourinarow.core.bitboard;
+
+import java.util.Arrays;
+
+import minimax.fourinarow.core.arrays.core.FourInARowMove;
+import minimax.fourinarow.core.arrays.core.Piece;
+import utils.implementation.core.AbstractGameState;
+
+/**
+ * 
+ * Bitboard based Four In A Row specific game-state. Each player's pieces are
+ * stored in a single long where every column takes up HEIGHT bits, the bottom
+ * row is the lowest bit of the column and the extra bit at the top of every
+ * column is always empty so that shifting never wraps one column into the next.
+ * 
+ * Bit layout:
+ * 
+ * <pre>
+ *  6 13 20 27 34 41 48   (always empty)
+ *  5 12 19 26 33 40 47   top row
+ *  4 11 18 25 32 39 46
+ *  3 10 17 24 31 38 45
+ *  2  9 16 23 30 37 44
+ *  1  8 15 22 29 36 43
+ *  0  7 14 21 28 35 42   bottom row
+ * </pre>
+ * 
+ * @author Riley McCuen
+ *
+ */
+
+public class FourInARowBitboardGameState extends AbstractGameState<FourInARowMove> {
+
+	public static final int ROWS = 6;
+	public static final int COLUMNS = 7;
+	public static final int HEIGHT = ROWS + 1;
+	public static final int MAX_NUMBER_OF_PLYS = 42;
+
+	/**
+	 * Bit shifts that move a piece one space in each of the four directions.
+	 */
+	static final int VERTICAL = 1;
+	static final int HORIZONTAL = HEIGHT;
+	static final int DIAGONAL_UP = HEIGHT + 1;
+	static final int DIAGONAL_DOWN = HEIGHT - 1;
+
+	/**
+	 * Has the bottom bit of every column set.
+	 */
+	static final long BOTTOM_MASK = bottomMask();
+
+	/**
+	 * Has every playable bit set.
+	 */
+	static final long BOARD_MASK = BOTTOM_MASK * ((1L << ROWS) - 1);
+
+	private static final long SIDE_TO_MOVE_BIT = 1L << 63;
+
+	/**
+	 * Has every bit of the first column set.
+	 */
+	private static final long COLUMN_MASK = (1L << HEIGHT) - 1;
+
+	private long playerOneBoard;
+	private long playerTwoBoard;
+	private Piece currentPlayer;
+
+	/**
+	 * The bit that the next piece dropped in every column will occupy.
+	 */
+	private int[] heights;
+
+	/**
+	 * Converts a 2D array board where row 0 is the top row into a bitboard.
+	 * 
+	 * @param plyNumber
+	 * @param board
+	 * @param currentPlayer
+	 */
+	public FourInARowBitboardGameState(int plyNumber, Piece[][] board, Piece currentPlayer) {
+		super(plyNumber);
+		this.currentPlayer = currentPlayer;
+		this.heights = new int[COLUMNS];
+		for (int column = 0; column < COLUMNS; ++column) {
+			heights[column] = column * HEIGHT;
+			for (int row = ROWS - 1; row >= 0; --row) {
+				if (board[row][column] == Piece.PLAYER_ONE) {
+					playerOneBoard |= 1L << heights[column]++;
+				} else if (board[row][column] == Piece.PLAYER_TWO) {
+					playerTwoBoard |= 1L << heights[column]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @param plyNumber
+	 * @param playerOneBoard
+	 * @param playerTwoBoard
+	 * @param heights
+	 * @param currentPlayer
+	 */
+	public FourInARowBitboardGameState(int plyNumber, long playerOneBoard, long playerTwoBoard, int[] heights,
+			Piece currentPlayer) {
+		super(plyNumber);
+		this.playerOneBoard = playerOneBoard;
+		this.playerTwoBoard = playerTwoBoard;
+		this.heights = Arrays.copyOf(heights, COLUMNS);
+		this.currentPlayer = currentPlayer;
+	}
+
+	private static long bottomMask() {
+		long mask = 0L;
+		for (int column = 0; column < COLUMNS; ++column) {
+			mask |= 1L << (column * HEIGHT);
+		}
+		return mask;
+	}
+
+	/**
+	 * 
+	 * @param board - bitboard of a single player's pieces.
+	 * @return - whether the player has four pieces in a row anywhere on the board.
+	 */
+	public static boolean isWin(long board) {
+		long pairs = board & (board >>> HORIZONTAL);
+		if ((pairs & (pairs >>> (2 * HORIZONTAL))) != 0) {
+			return true;
+		}
+		pairs = board & (board >>> DIAGONAL_UP);
+		if ((pairs & (pairs >>> (2 * DIAGONAL_UP))) != 0) {
+			return true;
+		}
+		pairs = board & (board >>> DIAGONAL_DOWN);
+		if ((pairs & (pairs >>> (2 * DIAGONAL_DOWN))) != 0) {
+			return true;
+		}
+		pairs = board & (board >>> VERTICAL);
+		return (pairs & (pairs >>> (2 * VERTICAL))) != 0;
+	}
+
+	/**
+	 * 
+	 * @param board    - bitboard of a single player's pieces.
+	 * @param occupied - bitboard of every piece on the board.
+	 * @return - bitboard of every empty square that would complete four in a row
+	 *         for the player.
+	 */
+	public static long threats(long board, long occupied) {
+		long threats = (board << VERTICAL) & (board << (2 * VERTICAL)) & (board << (3 * VERTICAL));
+		threats |= lineThreats(board, HORIZONTAL);
+		threats |= lineThreats(board, DIAGONAL_UP);
+		threats |= lineThreats(board, DIAGONAL_DOWN);
+		return threats & (BOARD_MASK ^ occupied);
+	}
+
+	/**
+	 * Finds the squares that complete four in a row along one direction. These are
+	 * the squares with three pieces in a row on one side or with two on one side
+	 * and one on the other.
+	 */
+	private static long lineThreats(long board, int shift) {
+		long pair = (board << shift) & (board << (2 * shift));
+		long threats = pair & (board << (3 * shift));
+		threats |= pair & (board >>> shift);
+		pair = (board >>> shift) & (board >>> (2 * shift));
+		threats |= pair & (board << shift);
+		threats |= pair & (board >>> (3 * shift));
+		return threats;
+	}
+
+	public long getPlayerOneBoard() {
+		return playerOneBoard;
+	}
+
+	public long getPlayerTwoBoard() {
+		return playerTwoBoard;
+	}
+
+	public long getOccupied() {
+		return playerOneBoard | playerTwoBoard;
+	}
+
+	public Piece getCurrentPlayer() {
+		return currentPlayer;
+	}
+
+	/**
+	 * 
+	 * @return - a copy of the bit the next piece in every column will occupy.
+	 */
+	public int[] getHeights() {
+		return Arrays.copyOf(heights, COLUMNS);
+	}
+
+	/**
+	 * 
+	 * @param column
+	 * @return - whether another piece can be dropped in the column.
+	 */
+	public boolean canPlay(int column) {
+		return heights[column] < column * HEIGHT + ROWS;
+	}
+
+	/**
+	 * 
+	 * @param row    - row of the square where row 0 is the top row.
+	 * @param column - column of the square.
+	 * @return - the piece on the square.
+	 */
+	public Piece pieceAt(int row, int column) {
+		long bit = 1L << (column * HEIGHT + ROWS - 1 - row);
+		if ((playerOneBoard & bit) != 0) {
+			return Piece.PLAYER_ONE;
+		} else if ((playerTwoBoard & bit) != 0) {
+			return Piece.PLAYER_TWO;
+		}
+		return Piece.__EMPTY___;
+	}
+
+	/**
+	 * Sets the next open bit in the column on the current player's board.
+	 * Increments plyNumber then swaps current players.
+	 */
+	@Override
+	public void makeMove(FourInARowMove move) {
+		long bit = 1L << heights[move.getColumn()]++;
+		if (currentPlayer == Piece.PLAYER_ONE) {
+			playerOneBoard |= bit;
+			currentPlayer = Piece.PLAYER_TWO;
+		} else {
+			playerTwoBoard |= bit;
+			currentPlayer = Piece.PLAYER_ONE;
+		}
+		plyNumber++;
+	}
+
+	/**
+	 * Clears the last set bit in the column and swaps current players back.
+	 * Decrements plyNumber.
+	 */
+	@Override
+	public void undoMove(FourInARowMove move) {
+		long bit = ~(1L << --heights[move.getColumn()]);
+		playerOneBoard &= bit;
+		playerTwoBoard &= bit;
+		currentPlayer = Piece.swapPlayerPiece(currentPlayer);
+		plyNumber--;
+	}
+
+	/**
+	 * Adding the bottom bit of every column to all occupied bits sets the first
+	 * empty bit of every column, combined with one player's pieces this uniquely
+	 * identifies the board. The result is mixed so that the low bits are usable
+	 * as a table index.
+	 */
+	@Override
+	public long getKey() {
+		return mix(getUnmixedKey());
+	}
+
+	/**
+	 * The board is left-right symmetric, the canonical key is the smaller of the
+	 * key and the key of the mirrored board.
+	 */
+	@Override
+	public long getCanonicalKey() {
+		long key = getUnmixedKey();
+		return Long.min(mix(key), mix(mirror(key)));
+	}
+
+	@Override
+	public boolean isSymmetric() {
+		long key = getUnmixedKey();
+		return key == mirror(key);
+	}
+
+	/**
+	 * 
+	 * @return - the key before it is mixed, every column of the board is kept in
+	 *         its own HEIGHT bits.
+	 */
+	private long getUnmixedKey() {
+		long key = playerOneBoard + getOccupied() + BOTTOM_MASK;
+		if (currentPlayer == Piece.PLAYER_TWO) {
+			key |= SIDE_TO_MOVE_BIT;
+		}
+		return key;
+	}
+
+	/**
+	 * 
+	 * @return - the unmixed key of the mirrored board.
+	 */
+	private static long mirror(long key) {
+		long mirrored = key & SIDE_TO_MOVE_BIT;
+		for (int column = 0; column < COLUMNS; ++column) {
+			mirrored |= ((key >>> (column * HEIGHT)) & COLUMN_MASK) << ((COLUMNS - 1 - column) * HEIGHT);
+		}
+		return mirrored;
+	}
+
+	private static long mix(long key) {
+		key = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+		key = (key ^ (key >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return key ^ (key >>> 33);
+	}
+
+	@Override
+	public int hashCode() {
+		long key = getKey();
+		return (int) (key ^ (key >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder stateString = new StringBuilder();
+		stateString.append("Current Player : " + currentPlayer.name() + "\n");
+		stateString.append("Ply: " + plyNumber + "\n");
+		for (int row = 0; row < ROWS; ++row) {
+			for (int column = 0; column < COLUMNS; ++column) {
+				stateString.append(pieceAt(row, column).name() + " ");
+			}
+			stateString.append("\n");
+		}
+		return stateString.toString();
+	}
+
+}
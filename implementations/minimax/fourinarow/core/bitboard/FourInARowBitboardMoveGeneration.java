@@ -0,0 +1,79 @@
+package minimax.fourinarow.core.bitboard;
+
+import java.util.ArrayList;
+
+import minimax.fourinarow.core.arrays.core.FourInARowMove;
+import utils.implementation.core.BufferedMoveGeneration;
+
+/**
+ * 
+ * Bitboard based Four In A Row move generation. A move is encoded as its
+ * column.
+ * 
+ * @author Riley McCuen
+ *
+ */
+
+public class FourInARowBitboardMoveGeneration implements BufferedMoveGeneration<FourInARowMove, FourInARowBitboardGameState> {
+
+	/**
+	 * The column ordering that always picks the closest to center column that is
+	 * not full first.
+	 */
+	private static final int[] CENTER_FOCUSED_COLUMN_ORDERING = new int[] { 3, 2, 4, 1, 5, 0, 6 };
+
+	/**
+	 * One shared move per column that encoded moves are turned back into.
+	 */
+	private static final FourInARowMove[] COLUMN_MOVES = new FourInARowMove[FourInARowBitboardGameState.COLUMNS];
+	static {
+		for (int column = 0; column < COLUMN_MOVES.length; ++column) {
+			COLUMN_MOVES[column] = new FourInARowMove(column);
+		}
+	}
+
+	/**
+	 * Returns a list of moves utilizing center focused column ordering.
+	 */
+	@Override
+	public Iterable<FourInARowMove> generateMoves(FourInARowBitboardGameState gameState) {
+		ArrayList<FourInARowMove> moveList = new ArrayList<FourInARowMove>(FourInARowBitboardGameState.COLUMNS);
+		for (int column : CENTER_FOCUSED_COLUMN_ORDERING) {
+			if (gameState.canPlay(column)) {
+				moveList.add(new FourInARowMove(column));
+			}
+		}
+		return moveList;
+	}
+
+	/**
+	 * Writes the columns that are not full utilizing center focused column
+	 * ordering.
+	 */
+	@Override
+	public int generateMoves(FourInARowBitboardGameState gameState, int[] moves) {
+		int count = 0;
+		for (int column : CENTER_FOCUSED_COLUMN_ORDERING) {
+			if (gameState.canPlay(column)) {
+				moves[count++] = column;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public FourInARowMove getMove(int move) {
+		return COLUMN_MOVES[move];
+	}
+
+	@Override
+	public int encode(FourInARowMove move) {
+		return move.getColumn();
+	}
+
+	@Override
+	public int getMaximumNumberOfMoves() {
+		return FourInARowBitboardGameState.COLUMNS;
+	}
+
+}
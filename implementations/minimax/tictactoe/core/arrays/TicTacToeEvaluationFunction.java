@@ -18,7 +18,7 @@ public class TicTacToeEvaluationFunction implements EvaluationFunction<TicTacToe
 	 */
 	private static final int[][][] THREE_IN_ROW_INDICES = new int[][][] { { { 0, 0 }, { 0, 1 }, { 0, 2 } },
 			{ { 1, 0 }, { 1, 1 }, { 1, 2 } }, { { 2, 0 }, { 2, 1 }, { 2, 2 } }, { { 0, 0 }, { 1, 0 }, { 2, 0 } },
-			{ { 1, 0 }, { 1, 1 }, { 1, 2 } }, { { 2, 0 }, { 2, 1 }, { 2, 2 } }, { { 0, 0 }, { 1, 1 }, { 2, 2 } },
+			{ { 0, 1 }, { 1, 1 }, { 2, 1 } }, { { 0, 2 }, { 1, 2 }, { 2, 2 } }, { { 0, 0 }, { 1, 1 }, { 2, 2 } },
 			{ { 2, 0 }, { 1, 1 }, { 0, 2 } } };
 
 	/**
@@ -32,15 +32,15 @@ public class TicTacToeEvaluationFunction implements EvaluationFunction<TicTacToe
 
 	/**
 	 * Perfect evaluation function that only assigns a value if the state is
-	 * terminal.
+	 * terminal, the terminal evaluation of the player with three in a row.
 	 */
 	@Override
 	public int evaluate(TicTacToeGameState gameState, int positiveTerminalEvaluation, int negativeTerminalEvaluation) {
-		Piece[][] board = gameState.getBoard();
 		for (int[][] threeInRow : THREE_IN_ROW_INDICES) {
-			if (board[threeInRow[FIRST][ROW]][threeInRow[FIRST][COLUMN]] == board[threeInRow[SECOND][ROW]][threeInRow[SECOND][COLUMN]]
-					&& board[threeInRow[SECOND][ROW]][threeInRow[SECOND][COLUMN]] == board[threeInRow[THIRD][ROW]][threeInRow[THIRD][COLUMN]]) {
-				return board[threeInRow[FIRST][ROW]][threeInRow[FIRST][COLUMN]].getValue();
+			Piece first = gameState.pieceAt(threeInRow[FIRST][ROW], threeInRow[FIRST][COLUMN]);
+			if (first != Piece.__EMPTY___ && first == gameState.pieceAt(threeInRow[SECOND][ROW], threeInRow[SECOND][COLUMN])
+					&& first == gameState.pieceAt(threeInRow[THIRD][ROW], threeInRow[THIRD][COLUMN])) {
+				return first == Piece.PLAYER_ONE ? positiveTerminalEvaluation : negativeTerminalEvaluation;
 			}
 		}
 		return 0;
@@ -4,6 +4,7 @@ import java.util.Arrays;
 
 import minimax.fourinarow.core.arrays.core.Piece;
 import utils.implementation.core.AbstractGameState;
+import utils.implementation.core.ZobristTable;
 
 /**
  * Tic Tac Toe game-state. Reuses the Piece enumeration from Four In A Row.
@@ -17,18 +18,32 @@ public class TicTacToeGameState extends AbstractGameState<TicTacToeMove> {
 	public final static int ROWS = 3;
 	public final static int COLUMNS = 3;
 
+	/**
+	 * Zobrist values for every piece on every square, squares are indexed by row *
+	 * COLUMNS + column and pieces by their ordinal.
+	 */
+	private static final ZobristTable ZOBRIST_TABLE = new ZobristTable(ROWS * COLUMNS, Piece.values().length);
+
+	/**
+	 * The three rotations and four reflections of the board.
+	 */
+	private static final int[][] SYMMETRIES = calculateSymmetries();
+
 	private Piece[][] board;
 	private Piece currentPlayer;
 
 	public TicTacToeGameState(int plyNumber, Piece[][] board, Piece currentPlayer) {
-		super(plyNumber);
+		super(plyNumber, ZOBRIST_TABLE, SYMMETRIES);
 		this.board = board;
 		this.currentPlayer = currentPlayer;
+		this.calculateZobristKey();
 	}
 
 	@Override
 	public void makeMove(TicTacToeMove move) {
 		board[move.getRow()][move.getColumn()] = currentPlayer;
+		toggleZobristPiece(move.getRow() * COLUMNS + move.getColumn(), currentPlayer.ordinal());
+		toggleZobristSideToMove();
 		plyNumber++;
 		currentPlayer = Piece.swapPlayerPiece(currentPlayer);
 	}
@@ -38,6 +53,48 @@ public class TicTacToeGameState extends AbstractGameState<TicTacToeMove> {
 		board[move.getRow()][move.getColumn()] = Piece.__EMPTY___;
 		plyNumber--;
 		currentPlayer = Piece.swapPlayerPiece(currentPlayer);
+		toggleZobristPiece(move.getRow() * COLUMNS + move.getColumn(), currentPlayer.ordinal());
+		toggleZobristSideToMove();
+	}
+
+	/**
+	 * Calculates the Zobrist key of the whole board from scratch.
+	 */
+	private void calculateZobristKey() {
+		clearZobristKeys();
+		for (int row = 0; row < ROWS; ++row) {
+			for (int column = 0; column < COLUMNS; ++column) {
+				if (board[row][column] != Piece.__EMPTY___) {
+					toggleZobristPiece(row * COLUMNS + column, board[row][column].ordinal());
+				}
+			}
+		}
+		if (currentPlayer == Piece.PLAYER_TWO) {
+			toggleZobristSideToMove();
+		}
+	}
+
+	/**
+	 * 
+	 * @return - where every square ends up under every symmetry of the board but
+	 *         the identity.
+	 */
+	private static int[][] calculateSymmetries() {
+		int last = ROWS - 1;
+		int[][] symmetries = new int[7][ROWS * COLUMNS];
+		for (int row = 0; row < ROWS; ++row) {
+			for (int column = 0; column < COLUMNS; ++column) {
+				int square = row * COLUMNS + column;
+				symmetries[0][square] = column * COLUMNS + last - row;
+				symmetries[1][square] = (last - row) * COLUMNS + last - column;
+				symmetries[2][square] = (last - column) * COLUMNS + row;
+				symmetries[3][square] = row * COLUMNS + last - column;
+				symmetries[4][square] = (last - row) * COLUMNS + column;
+				symmetries[5][square] = column * COLUMNS + row;
+				symmetries[6][square] = (last - column) * COLUMNS + last - row;
+			}
+		}
+		return symmetries;
 	}
 
 	/**
@@ -62,13 +119,24 @@ public class TicTacToeGameState extends AbstractGameState<TicTacToeMove> {
 		return copyBoard();
 	}
 
+	/**
+	 * Read-only access to a single square that does not copy the board.
+	 * 
+	 * @param row
+	 * @param column
+	 * @return - the piece on the square.
+	 */
+	public Piece pieceAt(int row, int column) {
+		return board[row][column];
+	}
+
 	public Piece getCurrentPlayer() {
 		return currentPlayer;
 	}
 
 	@Override
 	public int hashCode() {
-		return Arrays.hashCode(board);
+		return (int) (zobristKey ^ (zobristKey >>> 32));
 	}
 
 	@Override
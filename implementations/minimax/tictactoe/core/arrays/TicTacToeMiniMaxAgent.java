@@ -41,6 +41,11 @@ public class TicTacToeMiniMaxAgent extends AbstractMiniMaxAgent<TicTacToeMove, T
 		return super.searchIterativeDeepening(minDepth, maxDepth, findMax, time);
 	}
 
+	@Override
+	protected int getRemainingPlies() {
+		return TicTacToeGameState.MAXIMUM_NUMBER_OF_PLYS - gameState.getPlyNumber();
+	}
+
 	@Override
 	public String toString() {
 		return "I am a perfect Tic Tac Toe Agent.";
@@ -3,23 +3,35 @@ package minimax.tictactoe.core.arrays;
 import java.util.LinkedList;
 
 import minimax.fourinarow.core.arrays.core.Piece;
-import utils.implementation.core.MoveGeneration;
+import utils.implementation.core.BufferedMoveGeneration;
 
 /**
- * The standard move generation function for Tic Tac Toe.
+ * The standard move generation function for Tic Tac Toe. A move is encoded as
+ * row * COLUMNS + column.
  * 
  * @author Riley McCuen
  *
  */
-public class TicTacToeMoveGeneration implements MoveGeneration<TicTacToeMove, TicTacToeGameState> {
+public class TicTacToeMoveGeneration implements BufferedMoveGeneration<TicTacToeMove, TicTacToeGameState> {
+
+	/**
+	 * One shared move per square that encoded moves are turned back into.
+	 */
+	private static final TicTacToeMove[] SQUARE_MOVES = new TicTacToeMove[TicTacToeGameState.ROWS
+			* TicTacToeGameState.COLUMNS];
+	static {
+		for (int square = 0; square < SQUARE_MOVES.length; ++square) {
+			SQUARE_MOVES[square] = new TicTacToeMove(square / TicTacToeGameState.COLUMNS,
+					square % TicTacToeGameState.COLUMNS);
+		}
+	}
 
 	@Override
 	public Iterable<TicTacToeMove> generateMoves(TicTacToeGameState gameState) {
 		LinkedList<TicTacToeMove> moveList = new LinkedList<TicTacToeMove>();
-		Piece[][] board = gameState.getBoard();
 		for (int row = 0; row < TicTacToeGameState.ROWS; ++row) {
 			for (int column = 0; column < TicTacToeGameState.COLUMNS; ++column) {
-				if (board[row][column] == Piece.__EMPTY___) {
+				if (gameState.pieceAt(row, column) == Piece.__EMPTY___) {
 					moveList.add(new TicTacToeMove(row, column));
 				}
 			}
@@ -27,4 +39,32 @@ public class TicTacToeMoveGeneration implements MoveGeneration<TicTacToeMove, Ti
 		return moveList;
 	}
 
+	@Override
+	public int generateMoves(TicTacToeGameState gameState, int[] moves) {
+		int count = 0;
+		for (int row = 0; row < TicTacToeGameState.ROWS; ++row) {
+			for (int column = 0; column < TicTacToeGameState.COLUMNS; ++column) {
+				if (gameState.pieceAt(row, column) == Piece.__EMPTY___) {
+					moves[count++] = row * TicTacToeGameState.COLUMNS + column;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public TicTacToeMove getMove(int move) {
+		return SQUARE_MOVES[move];
+	}
+
+	@Override
+	public int encode(TicTacToeMove move) {
+		return move.getRow() * TicTacToeGameState.COLUMNS + move.getColumn();
+	}
+
+	@Override
+	public int getMaximumNumberOfMoves() {
+		return SQUARE_MOVES.length;
+	}
+
 }
@@ -0,0 +1,87 @@
+package minimax.tictactoe.core.arrays;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import minimax.fourinarow.core.arrays.core.Piece;
+import utils.implementation.minimax.book.OpeningBook;
+import utils.implementation.minimax.book.OpeningBookGenerator;
+import utils.implementation.minimax.tables.TranspositionTable;
+
+/**
+ * Generates and loads opening books for Tic Tac Toe that start from the empty
+ * board.
+ * 
+ * @author Riley McCuen
+ *
+ */
+public class TicTacToeOpeningBook {
+
+	public static final int DEFAULT_PLIES = 9;
+	public static final int DEFAULT_DEPTH = 9;
+
+	private TicTacToeOpeningBook() {
+	}
+
+	/**
+	 * 
+	 * @return - a new game-state with an empty board and player one to move.
+	 */
+	private static TicTacToeGameState emptyState() {
+		Piece[][] board = new Piece[TicTacToeGameState.ROWS][TicTacToeGameState.COLUMNS];
+		for (Piece[] row : board) {
+			Arrays.fill(row, Piece.__EMPTY___);
+		}
+		return new TicTacToeGameState(0, board, Piece.PLAYER_ONE);
+	}
+
+	/**
+	 * Searches every game-state less than plies moves into the game and writes
+	 * the book.
+	 * 
+	 * @param file  - the book to write.
+	 * @param plies - how many plies deep the book goes.
+	 * @param depth - the depth every game-state is searched to.
+	 * @return - the number of game-states written.
+	 * @throws IOException
+	 */
+	public static int generate(Path file, int plies, int depth) throws IOException {
+		TicTacToeGameState gameState = emptyState();
+		TicTacToeMiniMaxAgent agent = new TicTacToeMiniMaxAgent(gameState);
+		agent.setTranspositionTable(new TranspositionTable());
+		agent.setPrincipalVariationSearch(true);
+		agent.setMoveOrdering(true);
+		return new OpeningBookGenerator<TicTacToeMove, TicTacToeGameState>(gameState, agent,
+				new TicTacToeMoveGeneration()).generate(file, plies, depth, true);
+	}
+
+	/**
+	 * 
+	 * @param file - a book written by generate().
+	 * @return - the book.
+	 * @throws IOException
+	 */
+	public static OpeningBook<TicTacToeMove, TicTacToeGameState> load(Path file) throws IOException {
+		return new OpeningBook<TicTacToeMove, TicTacToeGameState>(file, new TicTacToeMoveGeneration());
+	}
+
+	/**
+	 * Writes a book, the arguments are the file followed by the optional number of
+	 * plies and search depth.
+	 * 
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		Path file = Paths.get(args.length > 0 ? args[0] : "tictactoe.book");
+		int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+		int depth = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+		long start = System.currentTimeMillis();
+		int size = generate(file, plies, depth);
+		System.out.println("Wrote " + size + " game-states to " + file + " in "
+				+ (System.currentTimeMillis() - start) + "ms");
+	}
+
+}
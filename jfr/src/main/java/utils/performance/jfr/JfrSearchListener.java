@@ -0,0 +1,95 @@
+package utils.performance.jfr;
+
+import jdk.jfr.EventType;
+import utils.implementation.core.AbstractMove;
+import utils.implementation.minimax.core.SearchListener;
+
+/**
+ * Turns what a search does into Java Flight Recorder events, so slow moves can
+ * be lined up with garbage collection, safepoints and allocation in the same
+ * recording. Every depth that finishes is a SearchIterationEvent, every root
+ * move a RootMoveEvent and every depth that is stopped a SearchStoppedEvent.
+ *
+ * Whether an event type is recorded is checked before anything is made, so
+ * while no recording asks for the events the listener only costs a check per
+ * depth and per root move. A single listener can be shared by every Agent.
+ *
+ * @author Riley McCuen
+ *
+ */
+public class JfrSearchListener implements SearchListener {
+
+	private static final EventType ITERATION = EventType.getEventType(SearchIterationEvent.class);
+	private static final EventType ROOT_MOVE = EventType.getEventType(RootMoveEvent.class);
+	private static final EventType STOPPED = EventType.getEventType(SearchStoppedEvent.class);
+
+	public JfrSearchListener() {
+	}
+
+	@Override
+	public Object iterationStarted(int depth) {
+		if (!ITERATION.isEnabled()) {
+			return null;
+		}
+		SearchIterationEvent event = new SearchIterationEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void iterationFinished(Object iteration, int depth, int value, long nodes, long time) {
+		if (iteration == null) {
+			return;
+		}
+		SearchIterationEvent event = (SearchIterationEvent) iteration;
+		event.end();
+		if (event.shouldCommit()) {
+			event.depth = depth;
+			event.value = value;
+			event.nodes = nodes;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void iterationStopped(Object iteration, int depth, long nodes, long time, boolean timedOut) {
+		if (!STOPPED.isEnabled()) {
+			return;
+		}
+		SearchStoppedEvent event = new SearchStoppedEvent();
+		if (event.shouldCommit()) {
+			event.depth = depth;
+			event.nodes = nodes;
+			event.elapsed = time;
+			event.timedOut = timedOut;
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object rootMoveStarted(AbstractMove move, int depth) {
+		if (!ROOT_MOVE.isEnabled()) {
+			return null;
+		}
+		RootMoveEvent event = new RootMoveEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void rootMoveFinished(Object rootMove, AbstractMove move, int depth, int value, long nodes, long time) {
+		if (rootMove == null) {
+			return;
+		}
+		RootMoveEvent event = (RootMoveEvent) rootMove;
+		event.end();
+		if (event.shouldCommit()) {
+			event.move = move.toString();
+			event.depth = depth;
+			event.value = value;
+			event.nodes = nodes;
+			event.commit();
+		}
+	}
+
+}
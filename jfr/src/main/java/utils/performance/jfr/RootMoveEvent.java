@@ -0,0 +1,37 @@
+package utils.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A move at the root that was searched. The duration of the event is the time
+ * the move took and the event is on the thread that searched it.
+ *
+ * @author Riley McCuen
+ *
+ */
+@Name("minimax.RootMove")
+@Label("Root Move")
+@Category({ "MiniMax", "Search" })
+@Description("A move at the root that was searched")
+@StackTrace(false)
+public class RootMoveEvent extends jdk.jfr.Event {
+
+	@Label("Move")
+	String move;
+
+	@Label("Depth")
+	@Description("Depth the root is searched to")
+	int depth;
+
+	@Label("Value")
+	@Description("Value of the move from the maximizing player's point of view, a bound if it was cut off")
+	int value;
+
+	@Label("Nodes")
+	long nodes;
+
+}
@@ -0,0 +1,33 @@
+package utils.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A depth of an iterative deepening search that finished. The duration of the
+ * event is the time the depth took.
+ *
+ * @author Riley McCuen
+ *
+ */
+@Name("minimax.SearchIteration")
+@Label("Search Iteration")
+@Category({ "MiniMax", "Search" })
+@Description("A depth of an iterative deepening search that finished")
+@StackTrace(false)
+public class SearchIterationEvent extends jdk.jfr.Event {
+
+	@Label("Depth")
+	int depth;
+
+	@Label("Value")
+	@Description("Value of the depth from the maximizing player's point of view")
+	int value;
+
+	@Label("Nodes")
+	long nodes;
+
+}
@@ -0,0 +1,40 @@
+package utils.performance.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A depth of a search that did not finish because the time limit was reached
+ * or the search was cancelled.
+ *
+ * @author Riley McCuen
+ *
+ */
+@Name("minimax.SearchStopped")
+@Label("Search Stopped")
+@Category({ "MiniMax", "Search" })
+@Description("A depth of a search that was stopped by the time limit or cancelled")
+@StackTrace(false)
+public class SearchStoppedEvent extends jdk.jfr.Event {
+
+	@Label("Depth")
+	int depth;
+
+	@Label("Nodes")
+	@Description("Nodes the depth visited before it stopped")
+	long nodes;
+
+	@Label("Elapsed")
+	@Description("Time the depth ran for")
+	@Timespan(Timespan.NANOSECONDS)
+	long elapsed;
+
+	@Label("Timed Out")
+	@Description("True if the time limit was reached, false if the search was cancelled")
+	boolean timedOut;
+
+}
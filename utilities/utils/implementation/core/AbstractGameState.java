@@ -1,5 +1,7 @@
 package utils.implementation.core;
 
+import java.util.Arrays;
+
 /**
  * 
  * The is the game-state that represents a game at any point. This object should
@@ -20,8 +22,62 @@ public abstract class AbstractGameState<M extends AbstractMove> extends Object {
 	 */
 	protected int plyNumber;
 
+	/**
+	 * Zobrist table used to maintain zobristKey. Is null unless the game-state
+	 * opted in to Zobrist hashing by passing a table to the constructor.
+	 */
+	protected final ZobristTable zobristTable;
+
+	/**
+	 * Incrementally updated Zobrist key of the game-state. Implementations that
+	 * opted in should toggle the pieces and side to move they change in
+	 * makeMove() and undoMove().
+	 */
+	protected long zobristKey = 0L;
+
+	/**
+	 * Symmetries of the board, every one but the identity. Square
+	 * symmetries[i][square] is where the square ends up in symmetric version i of
+	 * the board. Is null unless the game-state opted in to symmetries.
+	 */
+	protected final int[][] symmetries;
+
+	/**
+	 * Zobrist keys of the symmetric versions of the game-state, kept up to date
+	 * along with zobristKey by toggleZobristPiece() and toggleZobristSideToMove().
+	 */
+	protected final long[] symmetricKeys;
+
 	public AbstractGameState(int plyNumber) {
+		this(plyNumber, null);
+	}
+
+	/**
+	 * Creates a game-state that opts in to Zobrist hashing, getKey() will return
+	 * the incrementally updated Zobrist key instead of hashCode().
+	 * 
+	 * @param plyNumber
+	 * @param zobristTable
+	 */
+	public AbstractGameState(int plyNumber, ZobristTable zobristTable) {
+		this(plyNumber, zobristTable, null);
+	}
+
+	/**
+	 * Creates a game-state that opts in to Zobrist hashing and symmetries,
+	 * getCanonicalKey() will return the smallest Zobrist key of all of the
+	 * symmetric versions of the game-state.
+	 * 
+	 * @param plyNumber
+	 * @param zobristTable
+	 * @param symmetries   - every symmetry of the board but the identity, as the
+	 *                     square every square ends up on.
+	 */
+	public AbstractGameState(int plyNumber, ZobristTable zobristTable, int[][] symmetries) {
 		this.plyNumber = plyNumber;
+		this.zobristTable = zobristTable;
+		this.symmetries = symmetries;
+		this.symmetricKeys = symmetries == null ? null : new long[symmetries.length];
 	}
 
 	public int getPlyNumber() {
@@ -57,6 +113,103 @@ public abstract class AbstractGameState<M extends AbstractMove> extends Object {
 	@Override
 	public abstract int hashCode();
 
+	/**
+	 * The key that transposition tables store this game-state under. Two
+	 * game-states that are not equal should have different keys as often as
+	 * possible because tables only compare keys. By default this is hashCode().
+	 * 
+	 * @return - 64 bit key of the game-state.
+	 */
+	public long getKey() {
+		return zobristTable == null ? hashCode() : zobristKey;
+	}
+
+	/**
+	 * The key that is the same for every symmetric version of the game-state, such
+	 * as the smaller of the key and the key of the mirrored board. Symmetric
+	 * versions of a game-state have the same value, so transposition tables and
+	 * opening books store them all under this key. By default a game-state has no
+	 * symmetries and this is getKey().
+	 * 
+	 * @return - 64 bit key shared by all symmetric versions of the game-state.
+	 */
+	public long getCanonicalKey() {
+		long key = getKey();
+		if (symmetricKeys != null) {
+			for (long symmetricKey : symmetricKeys) {
+				key = Long.min(key, symmetricKey);
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * 
+	 * @return - whether the game-state is one of its own symmetric versions, in
+	 *         which case moves that are symmetric to each other lead to game-states
+	 *         with the same value.
+	 */
+	public boolean isSymmetric() {
+		if (symmetricKeys != null) {
+			for (long symmetricKey : symmetricKeys) {
+				if (symmetricKey == zobristKey) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds or removes a piece from the Zobrist key.
+	 * 
+	 * @param square - the square the piece is placed on or removed from.
+	 * @param piece  - the piece that is placed or removed.
+	 */
+	protected final void toggleZobristPiece(int square, int piece) {
+		zobristKey ^= zobristTable.getPieceKey(square, piece);
+		if (symmetries != null) {
+			for (int i = 0; i < symmetries.length; ++i) {
+				symmetricKeys[i] ^= zobristTable.getPieceKey(symmetries[i][square], piece);
+			}
+		}
+	}
+
+	/**
+	 * Changes the side to move in the Zobrist key.
+	 */
+	protected final void toggleZobristSideToMove() {
+		zobristKey ^= zobristTable.getSideToMoveKey();
+		if (symmetries != null) {
+			for (int i = 0; i < symmetries.length; ++i) {
+				symmetricKeys[i] ^= zobristTable.getSideToMoveKey();
+			}
+		}
+	}
+
+	/**
+	 * Empties the Zobrist keys, used before calculating them from scratch.
+	 */
+	protected final void clearZobristKeys() {
+		zobristKey = 0L;
+		if (symmetricKeys != null) {
+			Arrays.fill(symmetricKeys, 0L);
+		}
+	}
+
+	/**
+	 * Copies the Zobrist keys of another game-state with the same symmetries so
+	 * they do not have to be calculated.
+	 * 
+	 * @param gameState
+	 */
+	protected final void copyZobristKeys(AbstractGameState<M> gameState) {
+		zobristKey = gameState.zobristKey;
+		if (symmetricKeys != null) {
+			System.arraycopy(gameState.symmetricKeys, 0, symmetricKeys, 0, symmetricKeys.length);
+		}
+	}
+
 	/**
 	 * Can be used extract a string representation of the move. Can be helpful for
 	 * debugging purposes or in a terminal based game. This method is not called by
@@ -0,0 +1,59 @@
+package utils.implementation.core;
+
+/**
+ * Move-generation function that can also write the moves of a game-state into a
+ * buffer that is owned by the caller instead of allocating a new collection and
+ * new moves every time it is called. Moves are written as encoded moves, small
+ * numbers from 0 up to getMaximumNumberOfMoves() that getMove() turns back into
+ * a move. Agents use the buffer version everywhere except for the root of a
+ * search, so interior nodes of the search never allocate moves. Encoded moves
+ * also identify moves in tables such as the killer and history tables.
+ *
+ * @author Riley McCuen
+ *
+ * @param <M> The implementation of AbstractMove for the game that this
+ *        game-state represents.
+ * @param <G> The implementation of GameState for the game that this game-state
+ *        represents.
+ */
+public interface BufferedMoveGeneration<M extends AbstractMove, G extends AbstractGameState<M>>
+		extends MoveGeneration<M, G> {
+
+	/**
+	 * Writes the encoded moves of the game-state into the buffer. The moves must be
+	 * the same and in the same order as the ones generateMoves(G) returns.
+	 *
+	 * @param gameState - The state of the game that encapsulates all necessary
+	 *                  information for move generation.
+	 * @param moves     - buffer that can hold at least getMaximumNumberOfMoves()
+	 *                  encoded moves.
+	 * @return - the number of moves written into the buffer.
+	 */
+	public int generateMoves(G gameState, int[] moves);
+
+	/**
+	 * Turns an encoded move back into a move. The same move is returned every time
+	 * the same encoded move is given so the move should not be modified.
+	 *
+	 * @param move - an encoded move written by generateMoves(G, int[]).
+	 * @return - the move the encoded move stands for.
+	 */
+	public M getMove(int move);
+
+	/**
+	 * Encodes a move, getMove(encode(move)) must be a move that modifies the
+	 * game-state the same way as the given move.
+	 *
+	 * @param move - a move returned by generateMoves(G).
+	 * @return - the encoded move.
+	 */
+	public int encode(M move);
+
+	/**
+	 *
+	 * @return - the most moves any game-state can have, every encoded move is less
+	 *         than this.
+	 */
+	public int getMaximumNumberOfMoves();
+
+}
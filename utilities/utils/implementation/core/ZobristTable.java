@@ -0,0 +1,91 @@
+package utils.implementation.core;
+
+/**
+ * Table of random 64 bit values used for Zobrist hashing. A game registers how
+ * many squares its board has and how many different pieces can be placed on a
+ * square, then the key of a game-state is the XOR of the values of every piece
+ * on the board and the side to move value if it is the second player's turn.
+ * Since XOR is its own inverse a game-state can update its key in O(1) when a
+ * move is made or undone by toggling only the squares the move changed.
+ *
+ * The values are generated from a fixed seed so keys are the same across runs.
+ *
+ * @author Riley McCuen
+ *
+ */
+public class ZobristTable {
+
+	public static final long DEFAULT_SEED = 0x9E3779B97F4A7C15L;
+
+	private final long[] pieceKeys;
+	private final long sideToMoveKey;
+	private final int numberOfSquares;
+	private final int numberOfPieces;
+	private long seed;
+
+	/**
+	 *
+	 * @param numberOfSquares - number of squares on the board.
+	 * @param numberOfPieces  - number of different pieces a square can hold.
+	 */
+	public ZobristTable(int numberOfSquares, int numberOfPieces) {
+		this(numberOfSquares, numberOfPieces, DEFAULT_SEED);
+	}
+
+	/**
+	 *
+	 * @param numberOfSquares - number of squares on the board.
+	 * @param numberOfPieces  - number of different pieces a square can hold.
+	 * @param seed            - the seed that the values are generated from.
+	 */
+	public ZobristTable(int numberOfSquares, int numberOfPieces, long seed) {
+		this.numberOfSquares = numberOfSquares;
+		this.numberOfPieces = numberOfPieces;
+		this.seed = seed;
+		this.pieceKeys = new long[numberOfSquares * numberOfPieces];
+		for (int i = 0; i < pieceKeys.length; ++i) {
+			pieceKeys[i] = nextValue();
+		}
+		this.sideToMoveKey = nextValue();
+	}
+
+	/**
+	 * SplitMix64, small and fast generator that gives well distributed values.
+	 *
+	 * @return - the next random value.
+	 */
+	private long nextValue() {
+		long z = (seed += 0x9E3779B97F4A7C15L);
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 *
+	 * @param square - index of the square, must be less than numberOfSquares.
+	 * @param piece  - index of the piece, must be less than numberOfPieces.
+	 * @return - the value to XOR into a key when the piece is placed on or removed
+	 *         from the square.
+	 */
+	public long getPieceKey(int square, int piece) {
+		return pieceKeys[square * numberOfPieces + piece];
+	}
+
+	/**
+	 *
+	 * @return - the value to XOR into a key every time the side to move changes.
+	 */
+	public long getSideToMoveKey() {
+		return sideToMoveKey;
+	}
+
+	public int getNumberOfSquares() {
+		return numberOfSquares;
+	}
+
+	public int getNumberOfPieces() {
+		return numberOfPieces;
+	}
+
+}
@@ -0,0 +1,178 @@
+package utils.implementation.minimax.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import utils.implementation.core.AbstractGameState;
+import utils.implementation.core.AbstractMove;
+import utils.implementation.core.MoveGeneration;
+
+/**
+ * Read-only opening book that is memory mapped from a file written by an
+ * OpeningBookGenerator. The file is a small header followed by fixed size
+ * entries sorted by the key of their game-state, so a lookup is a binary search
+ * straight over the mapped file and nothing is ever read into the heap. Finding
+ * the entry of a game-state allocates nothing, finding its move generates the
+ * moves of the game-state with the MoveGeneration. Every entry holds the key of
+ * the game-state the best move leads to, along with its value and the depth it
+ * was searched to. Keys are canonical keys so one entry covers every symmetric
+ * version of a game-state, the move is found by making every move and comparing
+ * the keys of the game-states they lead to.
+ *
+ * Lookups never write to the mapping so a book can be shared by any number of
+ * Agents and threads.
+ *
+ * File layout, all values big-endian:
+ *
+ * header - MAGIC (int), VERSION (int), number of entries (int), unused (int).
+ *
+ * entry - key (long), key after the best move (long), value (int), depth
+ * (short), unused (short).
+ *
+ * @author Riley McCuen
+ *
+ * @param <M> - abstract move implementation
+ * @param <G> - game-state implementation
+ */
+public class OpeningBook<M extends AbstractMove, G extends AbstractGameState<M>> {
+
+	/**
+	 * First four bytes of every book, "GMOB".
+	 */
+	public static final int MAGIC = 0x474D4F42;
+	public static final int VERSION = 2;
+
+	/**
+	 * Sizes in bytes of the header and of every entry.
+	 */
+	public static final int HEADER_SIZE = 16;
+	public static final int ENTRY_SIZE = 24;
+
+	/**
+	 * Offsets of the fields of an entry from the start of the entry.
+	 */
+	private static final int MOVE_KEY_OFFSET = 8;
+	private static final int VALUE_OFFSET = 16;
+	private static final int DEPTH_OFFSET = 20;
+
+	private final ByteBuffer entries;
+	private final int size;
+	private final MoveGeneration<M, G> moveGenerator;
+
+	/**
+	 * Maps the book into memory. The file is closed right away, the mapping stays
+	 * valid until the book is garbage collected.
+	 *
+	 * @param file          - a book written by an OpeningBookGenerator.
+	 * @param moveGenerator - used to find the book move among the moves of a
+	 *                      game-state.
+	 * @throws IOException - if the file can not be read or is not a book.
+	 */
+	public OpeningBook(Path file, MoveGeneration<M, G> moveGenerator) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long length = channel.size();
+			if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+				throw new IOException("Not an opening book: " + file);
+			}
+			buffer = channel.map(MapMode.READ_ONLY, 0, length);
+		}
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("Not an opening book: " + file);
+		}
+		int size = buffer.getInt(8);
+		if (size < 0 || HEADER_SIZE + (long) size * ENTRY_SIZE != buffer.capacity()) {
+			throw new IOException("Opening book is truncated: " + file);
+		}
+		this.entries = buffer;
+		this.size = size;
+		this.moveGenerator = moveGenerator;
+	}
+
+	/**
+	 *
+	 * @param gameState - the game-state to look up, moves are made and undone on
+	 *                  it so it must not be used by another thread at the same
+	 *                  time.
+	 * @return - the book move of the game-state with its value set, or null if the
+	 *         game-state is not in the book.
+	 */
+	public M getMove(G gameState) {
+		int entry = find(gameState.getCanonicalKey());
+		if (entry < 0) {
+			return null;
+		}
+		int offset = HEADER_SIZE + entry * ENTRY_SIZE;
+		long moveKey = entries.getLong(offset + MOVE_KEY_OFFSET);
+		for (M move : moveGenerator.generateMoves(gameState)) {
+			gameState.makeMove(move);
+			boolean found = gameState.getCanonicalKey() == moveKey;
+			gameState.undoMove(move);
+			if (found) {
+				move.setValue(entries.getInt(offset + VALUE_OFFSET));
+				return move;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 *
+	 * @param gameState - the game-state to look up, it is not modified.
+	 * @return - whether the game-state is in the book.
+	 */
+	public boolean contains(G gameState) {
+		return find(gameState.getCanonicalKey()) >= 0;
+	}
+
+	/**
+	 *
+	 * @param gameState - the game-state to look up.
+	 * @return - the depth the book move was searched to, or -1 if the game-state
+	 *         is not in the book.
+	 */
+	public int getDepth(G gameState) {
+		int entry = find(gameState.getCanonicalKey());
+		return entry < 0 ? -1 : entries.getShort(HEADER_SIZE + entry * ENTRY_SIZE + DEPTH_OFFSET);
+	}
+
+	/**
+	 * Binary search over the sorted keys.
+	 *
+	 * @return - the position of the entry with the key, or -1 if there is none.
+	 */
+	private int find(long key) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			long middleKey = entries.getLong(HEADER_SIZE + middle * ENTRY_SIZE);
+			if (middleKey < key) {
+				low = middle + 1;
+			} else if (middleKey > key) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 *
+	 * @return - number of game-states in the book.
+	 */
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "Opening book of " + size + " game-states";
+	}
+
+}
@@ -0,0 +1,141 @@
+package utils.implementation.minimax.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import utils.implementation.core.AbstractGameState;
+import utils.implementation.core.AbstractMove;
+import utils.implementation.core.MoveGeneration;
+import utils.implementation.minimax.notthreadsafe.MiniMaxAgent;
+
+/**
+ * Builds an OpeningBook offline by searching every game-state that can be
+ * reached from a starting game-state in fewer than a given number of plies with
+ * an existing Agent. The game-state is walked with makeMove() and undoMove() and
+ * has to be the same object the Agent searches, so the Agent always searches
+ * the game-state the generator is at. Game-states reached by more than one line
+ * and symmetric versions of the same game-state are searched only once.
+ *
+ * @author Riley McCuen
+ *
+ * @param <M> - abstract move implementation
+ * @param <G> - game-state implementation
+ */
+public class OpeningBookGenerator<M extends AbstractMove, G extends AbstractGameState<M>> {
+
+	private final G gameState;
+	private final MiniMaxAgent<M> agent;
+	private final MoveGeneration<M, G> moveGenerator;
+
+	/**
+	 *
+	 * @param gameState     - the starting game-state, the one the Agent searches.
+	 * @param agent         - Agent that finds the book move of every game-state.
+	 * @param moveGenerator - the MoveGeneration the book will be read with.
+	 */
+	public OpeningBookGenerator(G gameState, MiniMaxAgent<M> agent, MoveGeneration<M, G> moveGenerator) {
+		this.gameState = gameState;
+		this.agent = agent;
+		this.moveGenerator = moveGenerator;
+	}
+
+	/**
+	 * Searches every game-state less than plies moves away from the starting
+	 * game-state and writes the book. Game-states that are over are left out.
+	 *
+	 * @param file    - the book to write, replaced if it exists.
+	 * @param plies   - how many plies deep the book goes.
+	 * @param depth   - the depth every game-state is searched to.
+	 * @param findMax - whether the maximizing player is to move in the starting
+	 *                game-state.
+	 * @return - the number of game-states written.
+	 * @throws IOException
+	 */
+	public int generate(Path file, int plies, int depth, boolean findMax) throws IOException {
+		Map<Long, Entry> entries = new HashMap<Long, Entry>();
+		addGameStates(entries, plies, depth, findMax);
+		List<Entry> sorted = new ArrayList<Entry>(entries.values());
+		Collections.sort(sorted, new Comparator<Entry>() {
+
+			@Override
+			public int compare(Entry first, Entry second) {
+				return Long.compare(first.key, second.key);
+			}
+
+		});
+		write(file, sorted);
+		return sorted.size();
+	}
+
+	/**
+	 * Adds the current game-state and everything less than plies moves away from
+	 * it to the entries.
+	 */
+	private void addGameStates(Map<Long, Entry> entries, int plies, int depth, boolean findMax) {
+		long key = gameState.getCanonicalKey();
+		if (plies <= 0 || entries.containsKey(key)) {
+			return;
+		}
+		M bestMove = agent.search(depth, findMax);
+		if (bestMove == null) {
+			return;
+		}
+		gameState.makeMove(bestMove);
+		long moveKey = gameState.getCanonicalKey();
+		gameState.undoMove(bestMove);
+		entries.put(key, new Entry(key, moveKey, bestMove.getValue(), depth));
+		for (M move : moveGenerator.generateMoves(gameState)) {
+			gameState.makeMove(move);
+			addGameStates(entries, plies - 1, depth, !findMax);
+			gameState.undoMove(move);
+		}
+	}
+
+	/**
+	 * Writes the sorted entries in the layout OpeningBook reads.
+	 */
+	private static void write(Path file, List<Entry> entries) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.HEADER_SIZE + entries.size() * OpeningBook.ENTRY_SIZE);
+		buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putInt(entries.size()).putInt(0);
+		for (Entry entry : entries) {
+			buffer.putLong(entry.key).putLong(entry.moveKey).putInt(entry.value).putShort((short) entry.depth)
+					.putShort((short) 0);
+		}
+		buffer.flip();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * A searched game-state waiting to be written.
+	 */
+	private static class Entry {
+
+		private final long key;
+		private final long moveKey;
+		private final int value;
+		private final int depth;
+
+		private Entry(long key, long moveKey, int value, int depth) {
+			this.key = key;
+			this.moveKey = moveKey;
+			this.value = value;
+			this.depth = depth;
+		}
+
+	}
+
+}
@@ -0,0 +1,106 @@
+package utils.implementation.minimax.core;
+
+import utils.implementation.core.AbstractGameState;
+import utils.implementation.core.AbstractMove;
+import utils.implementation.core.EvaluationFunction;
+import utils.implementation.core.MoveGeneration;
+import utils.implementation.minimax.tables.TranspositionTable;
+
+/**
+ * Search that solves a game-state to the end of the game. The evaluation is
+ * only used to tell if a game is over, every game-state scores WIN, DRAW or
+ * LOSS from the maximizing player's point of view. With only three scores the
+ * exact result is found with at most two null window searches, the first asks
+ * whether the player to move wins and the second whether they at least draw.
+ * Null windows cut off far more than the full window searches heuristic
+ * evaluations need.
+ *
+ * The solver has its own small transposition table. Its entries are exact game
+ * results so they stay valid for every later game-state of the same game.
+ *
+ * @author Riley McCuen
+ *
+ * @param <M> - abstract move implementation
+ * @param <G> - game-state implementation
+ */
+public class EndgameSolver<M extends AbstractMove, G extends AbstractGameState<M>> extends NegamaxSearch<M, G> {
+
+	/**
+	 * Results from the maximizing player's point of view.
+	 */
+	public static final int WIN = 1;
+	public static final int DRAW = 0;
+	public static final int LOSS = -1;
+
+	public static final int DEFAULT_NUMBER_OF_BUCKETS = 1 << 16;
+
+	/**
+	 *
+	 * @param moveGenerator
+	 * @param evaluator     - only used to tell if a game is over, a cheap one
+	 *                      is best.
+	 * @param positiveTerminalEvaluation
+	 * @param negativeTerminalEvaluation
+	 */
+	public EndgameSolver(MoveGeneration<M, G> moveGenerator, EvaluationFunction<G> evaluator,
+			int positiveTerminalEvaluation, int negativeTerminalEvaluation) {
+		super(moveGenerator, evaluator, positiveTerminalEvaluation, negativeTerminalEvaluation);
+		setTranspositionTable(new TranspositionTable(DEFAULT_NUMBER_OF_BUCKETS));
+		setMoveOrdering(true);
+	}
+
+	/**
+	 * Solves the game-state. The best move afterwards is a winning move if there
+	 * is one, otherwise a drawing move if there is one, and its value is the
+	 * result. The statistics of the search only hold this solve, as one iteration.
+	 *
+	 * @param gameState - the game-state to solve.
+	 * @param plies     - the most plies the game can have left.
+	 * @param findMax   - whether the maximizing player is to move.
+	 * @return - WIN, DRAW or LOSS.
+	 * @throws InterruptedException - if the search was stopped.
+	 */
+	public int solve(G gameState, int plies, boolean findMax) throws InterruptedException {
+		transpositionTable.newSearch();
+		statistics.reset();
+		long startTime = System.nanoTime();
+		int color = findMax ? 1 : -1;
+		// Whether the player to move wins.
+		int result = color * (findMax ? search(gameState, plies, DRAW, WIN, true)
+				: search(gameState, plies, LOSS, DRAW, false));
+		if (result < WIN) {
+			// Whether the player to move at least draws.
+			result = color * (findMax ? search(gameState, plies, LOSS, DRAW, true)
+					: search(gameState, plies, DRAW, WIN, false));
+			result = result < DRAW ? LOSS : DRAW;
+		}
+		if (bestMove != null) {
+			bestMove.setValue(color * result);
+		}
+		statistics.finishIteration(plies, color * result, getNodes(), System.nanoTime() - startTime);
+		return color * result;
+	}
+
+	/**
+	 * Every result of the solver is exact.
+	 */
+	@Override
+	public boolean isProven(int value) {
+		return true;
+	}
+
+	/**
+	 * Turns the evaluation into WIN or LOSS if the game is over and DRAW otherwise.
+	 */
+	@Override
+	protected int score(int evaluation, int ply) {
+		if (evaluation == positiveTerminalEvaluation) {
+			return WIN;
+		}
+		if (evaluation == negativeTerminalEvaluation) {
+			return LOSS;
+		}
+		return DRAW;
+	}
+
+}
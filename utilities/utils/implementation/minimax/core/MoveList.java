@@ -0,0 +1,147 @@
+package utils.implementation.minimax.core;
+
+import java.util.Arrays;
+
+import utils.implementation.core.AbstractMove;
+
+/**
+ * Reusable list of the moves of a single node. A search keeps one list for
+ * every ply and refills it at every node it visits at that ply, so once the
+ * lists have grown to the largest number of moves a node has, generating and
+ * ordering moves does not allocate. Along with every move the list holds the
+ * position it was generated at and its encoded move if the moves came from a
+ * BufferedMoveGeneration.
+ *
+ * @author Riley McCuen
+ *
+ * @param <M> - abstract move implementation
+ */
+public class MoveList<M extends AbstractMove> {
+
+	/**
+	 * Encoded move of moves that did not come from a BufferedMoveGeneration.
+	 */
+	public static final int NO_ENCODED_MOVE = -1;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private Object[] moves;
+	private int[] encodedMoves;
+	private int[] generatedIndices;
+	private int size = 0;
+
+	public MoveList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 *
+	 * @param capacity - number of moves the list can hold before it has to grow.
+	 */
+	public MoveList(int capacity) {
+		capacity = Integer.max(capacity, 1);
+		this.moves = new Object[capacity];
+		this.encodedMoves = new int[capacity];
+		this.generatedIndices = new int[capacity];
+	}
+
+	/**
+	 * Empties the list without releasing any of its buffers.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Adds a move to the end of the list.
+	 *
+	 * @param move        - the move.
+	 * @param encodedMove - the encoded move or NO_ENCODED_MOVE.
+	 */
+	public void add(M move, int encodedMove) {
+		if (size == moves.length) {
+			int capacity = size * 2;
+			moves = Arrays.copyOf(moves, capacity);
+			encodedMoves = Arrays.copyOf(encodedMoves, capacity);
+			generatedIndices = Arrays.copyOf(generatedIndices, capacity);
+		}
+		moves[size] = move;
+		encodedMoves[size] = encodedMove;
+		generatedIndices[size] = size;
+		++size;
+	}
+
+	/**
+	 * Moves the move at the index to the front of the list, the moves in front of
+	 * it are shifted back by one so they stay in the same order.
+	 *
+	 * @param index
+	 */
+	public void moveToFront(int index) {
+		Object move = moves[index];
+		int encodedMove = encodedMoves[index];
+		int generatedIndex = generatedIndices[index];
+		System.arraycopy(moves, 0, moves, 1, index);
+		System.arraycopy(encodedMoves, 0, encodedMoves, 1, index);
+		System.arraycopy(generatedIndices, 0, generatedIndices, 1, index);
+		moves[0] = move;
+		encodedMoves[0] = encodedMove;
+		generatedIndices[0] = generatedIndex;
+	}
+
+	/**
+	 * Sorts the moves starting at the given position from the highest score to the
+	 * lowest, moves with the same score keep their order. The scores are sorted
+	 * along with the moves. Insertion sort is used since nodes have few moves.
+	 *
+	 * @param from   - moves in front of this position are left where they are.
+	 * @param scores - the score of the move at every position.
+	 */
+	public void sort(int from, int[] scores) {
+		for (int i = from + 1; i < size; ++i) {
+			int score = scores[i];
+			Object move = moves[i];
+			int encodedMove = encodedMoves[i];
+			int generatedIndex = generatedIndices[i];
+			int j = i - 1;
+			for (; j >= from && scores[j] < score; --j) {
+				scores[j + 1] = scores[j];
+				moves[j + 1] = moves[j];
+				encodedMoves[j + 1] = encodedMoves[j];
+				generatedIndices[j + 1] = generatedIndices[j];
+			}
+			scores[j + 1] = score;
+			moves[j + 1] = move;
+			encodedMoves[j + 1] = encodedMove;
+			generatedIndices[j + 1] = generatedIndex;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public M get(int index) {
+		return (M) moves[index];
+	}
+
+	public int getEncodedMove(int index) {
+		return encodedMoves[index];
+	}
+
+	/**
+	 *
+	 * @param index - position of the move in the list.
+	 * @return - position the move was generated at.
+	 */
+	public int getGeneratedIndex(int index) {
+		return generatedIndices[index];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "Move list of " + size + " moves";
+	}
+
+}
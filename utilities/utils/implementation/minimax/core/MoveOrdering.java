@@ -0,0 +1,139 @@
+package utils.implementation.minimax.core;
+
+import java.util.Arrays;
+
+/**
+ * Orders the moves of a node with the killer move and history heuristics before
+ * the search iterates over them. Moves are identified by their encoded move
+ * from a BufferedMoveGeneration, which is a small number the game provides for
+ * every move.
+ *
+ * Every ply remembers the last KILLERS_PER_PLY different moves that caused a
+ * beta-cutoff at that ply, since a move that refuted one position often refutes
+ * its siblings too. The history table counts how often every move caused a
+ * cutoff for each player anywhere in the tree, weighted by the depth left so
+ * cutoffs close to the root count for more. Killers are searched first and the
+ * rest of the moves are searched in order of their history.
+ *
+ * An ordering belongs to a single search, it is not thread safe.
+ *
+ * @author Riley McCuen
+ *
+ */
+public class MoveOrdering {
+
+	public static final int KILLERS_PER_PLY = 2;
+
+	/**
+	 * Killers are scored above any history value. Once a history value reaches
+	 * MAXIMUM_HISTORY the whole table is halved so older cutoffs fade out.
+	 */
+	private static final int KILLER_SCORE = 1 << 30;
+	private static final int MAXIMUM_HISTORY = 1 << 28;
+
+	private final int numberOfMoves;
+	private final int[] history;
+	private int[] killers = new int[0];
+	private int[] scores;
+
+	/**
+	 *
+	 * @param numberOfMoves - every encoded move is less than this.
+	 */
+	public MoveOrdering(int numberOfMoves) {
+		this.numberOfMoves = numberOfMoves;
+		this.history = new int[2 * numberOfMoves];
+		this.scores = new int[numberOfMoves];
+	}
+
+	/**
+	 * Sorts the moves starting at the given position, killers first and then by
+	 * history. Moves with the same score keep the order they were generated in.
+	 *
+	 * @param moves - the moves of the node.
+	 * @param from  - moves in front of this position are left where they are.
+	 * @param ply   - distance of the node from the root.
+	 * @param color - 1 if the maximizing player is to move, -1 otherwise.
+	 */
+	public void order(MoveList<?> moves, int from, int ply, int color) {
+		int size = moves.size();
+		if (size - from < 2) {
+			return;
+		}
+		if (scores.length < size) {
+			scores = new int[size];
+		}
+		int side = side(color);
+		ensurePly(ply);
+		int killer = ply * KILLERS_PER_PLY;
+		for (int i = from; i < size; ++i) {
+			int move = moves.getEncodedMove(i);
+			if (move < 0) {
+				scores[i] = 0;
+			} else if (killers[killer] == move) {
+				scores[i] = KILLER_SCORE + 1;
+			} else if (killers[killer + 1] == move) {
+				scores[i] = KILLER_SCORE;
+			} else {
+				scores[i] = history[side + move];
+			}
+		}
+		moves.sort(from, scores);
+	}
+
+	/**
+	 * Records a move that caused a beta-cutoff.
+	 *
+	 * @param move  - the encoded move.
+	 * @param ply   - distance of the node from the root.
+	 * @param depth - number of plies that were left to search below the node.
+	 * @param color - 1 if the maximizing player is to move, -1 otherwise.
+	 */
+	public void cutoff(int move, int ply, int depth, int color) {
+		if (move < 0) {
+			return;
+		}
+		ensurePly(ply);
+		int killer = ply * KILLERS_PER_PLY;
+		if (killers[killer] != move) {
+			killers[killer + 1] = killers[killer];
+			killers[killer] = move;
+		}
+		int index = side(color) + move;
+		history[index] += depth * depth;
+		if (history[index] >= MAXIMUM_HISTORY) {
+			for (int i = 0; i < history.length; ++i) {
+				history[i] >>= 1;
+			}
+		}
+	}
+
+	/**
+	 * Forgets every killer and the whole history.
+	 */
+	public void clear() {
+		Arrays.fill(killers, MoveList.NO_ENCODED_MOVE);
+		Arrays.fill(history, 0);
+	}
+
+	private int side(int color) {
+		return color > 0 ? 0 : numberOfMoves;
+	}
+
+	/**
+	 * Grows the killer table so it has slots for the ply.
+	 */
+	private void ensurePly(int ply) {
+		if (killers.length <= ply * KILLERS_PER_PLY + 1) {
+			int length = killers.length;
+			killers = Arrays.copyOf(killers, Integer.max(length * 2, (ply + 1) * KILLERS_PER_PLY));
+			Arrays.fill(killers, length, killers.length, MoveList.NO_ENCODED_MOVE);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Killer and history move ordering for " + numberOfMoves + " moves";
+	}
+
+}
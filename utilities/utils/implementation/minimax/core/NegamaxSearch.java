@@ -0,0 +1,899 @@
+package utils.implementation.minimax.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import utils.implementation.core.AbstractGameState;
+import utils.implementation.core.AbstractMove;
+import utils.implementation.core.BufferedMoveGeneration;
+import utils.implementation.core.DeepCopy;
+import utils.implementation.core.EvaluationFunction;
+import utils.implementation.core.MoveGeneration;
+import utils.implementation.minimax.tables.TranspositionTable;
+import utils.performance.AspirationCounter;
+
+/**
+ * The alpha-beta search kernel that every Agent is built on. Instead of a
+ * findMax() and a findMin() method the search is written once in negamax form:
+ * every node maximizes from the point of view of the player to move and the
+ * value of a child is the negation of the child's own value. The color (+1 when
+ * the maximizing player is to move, -1 otherwise) turns the evaluation, which is
+ * always from the maximizing player's point of view, into the point of view of
+ * the player to move.
+ *
+ * A search is meant to be used by a single thread at a time, searches that run
+ * in parallel should each have their own. The search can be stopped from
+ * another thread with stop() or by the hard limit of its SearchClock. The flag,
+ * the clock and the thread's interrupt status, unless the search is not
+ * interruptible, are only polled every few nodes so checking them costs next to
+ * nothing.
+ *
+ * Children are made with makeMove() and undoMove() on the game-state that is
+ * searched, unless a DeepCopy is set in which case every child is a fresh copy
+ * and the game-state is never modified.
+ *
+ * The moves of every node are kept in a MoveList per ply that is reused. If the
+ * MoveGeneration is a BufferedMoveGeneration the moves below the root are
+ * generated into a buffer as well, so interior nodes do not allocate at all.
+ *
+ * The principal variation of every search is recorded in a triangular table,
+ * row ply holds the best line found from the node at that ply. The next search
+ * with the same object searches the moves of that line first at every ply until
+ * it leaves the line, which is what makes iterative deepening cheap.
+ *
+ * Wins and losses are scored by how far from the root the game ends. A win is
+ * scored MAXIMUM_PLY - ply past positiveTerminalEvaluation and a loss as far
+ * past negativeTerminalEvaluation, so faster wins and slower losses are
+ * preferred and any score past the terminal evaluations is a proven result.
+ * Transposition table entries hold these scores relative to their own node.
+ *
+ * Transposition table entries are stored under the canonical key of their
+ * game-state so symmetric versions of a game-state share an entry. The hash
+ * move of a shared entry may be the one of another version, which only changes
+ * the order moves are searched in. At a symmetric root only one of every group
+ * of moves that lead to symmetric versions of the same game-state is searched.
+ *
+ * Nodes, cutoffs and transposition table probes are counted in the
+ * SearchStatistics of the search, and searchIteration() records every depth in
+ * them with its time. A SearchListener, if there is one, is told about every
+ * depth of searchIteration() and every move searched at the root.
+ *
+ * @author Riley McCuen
+ *
+ * @param <M> - abstract move implementation
+ * @param <G> - game-state implementation
+ */
+public class NegamaxSearch<M extends AbstractMove, G extends AbstractGameState<M>> {
+
+	/**
+	 * Largest value a search can return. The negation is used instead of
+	 * Integer.MIN_VALUE so values can always be negated.
+	 */
+	public static final int INFINITY = Integer.MAX_VALUE;
+
+	/**
+	 * The stop flag is checked every POLL_INTERVAL_MASK + 1 nodes.
+	 */
+	private static final long POLL_INTERVAL_MASK = 0x3FF;
+
+	/**
+	 * Farthest a win or a loss can be scored past the terminal evaluations,
+	 * searches never get this many plies deep.
+	 */
+	public static final int MAXIMUM_PLY = 1000;
+
+	protected final MoveGeneration<M, G> moveGenerator;
+	protected final BufferedMoveGeneration<M, G> bufferedMoveGenerator;
+	protected final EvaluationFunction<G> evaluator;
+	protected final int positiveTerminalEvaluation;
+	protected final int negativeTerminalEvaluation;
+
+	protected DeepCopy<G> copier = null;
+	protected TranspositionTable transpositionTable = null;
+	protected boolean principalVariationSearch = false;
+	protected MoveOrdering moveOrdering = null;
+
+	/**
+	 * Half the width of the first aspiration window, aspiration windows are off
+	 * when it is zero.
+	 */
+	protected int aspirationWindow = 0;
+	protected AspirationCounter aspirationCounter = null;
+	private int previousValue = 0;
+	private boolean hasPreviousValue = false;
+
+	protected SearchClock clock = null;
+	protected SearchListener listener = null;
+	protected boolean interruptible = true;
+
+	protected volatile boolean stopped = false;
+	protected final SearchStatistics statistics = new SearchStatistics();
+	protected M bestMove = null;
+
+	/**
+	 * The moves of the node currently being searched at every ply and the buffer
+	 * encoded moves are generated into.
+	 */
+	private final List<MoveList<M>> moveLists = new ArrayList<MoveList<M>>();
+	private final int[] encodedMoves;
+
+	/**
+	 * Canonical keys of the children of a symmetric root, in the order of the
+	 * root's move list.
+	 */
+	private long[] rootChildKeys = new long[0];
+
+	/**
+	 * Triangular principal variation table stored as a square, row ply starts at
+	 * ply * pvCapacity. Every entry is the generated index of a move along with
+	 * the move.
+	 */
+	private int pvCapacity = 0;
+	private int[] pvLengths = new int[0];
+	private int[] pvIndices = new int[0];
+	private Object[] pvMoves = new Object[0];
+
+	/**
+	 * The principal variation of the last search that completed, and whether the
+	 * current search is still following it.
+	 */
+	private int[] previousPv = new int[0];
+	private int previousPvLength = 0;
+	private boolean followingPv = false;
+	private List<M> principalVariation = Collections.emptyList();
+
+	@SuppressWarnings("unchecked")
+	public NegamaxSearch(MoveGeneration<M, G> moveGenerator, EvaluationFunction<G> evaluator,
+			int positiveTerminalEvaluation, int negativeTerminalEvaluation) {
+		this.moveGenerator = moveGenerator;
+		if (moveGenerator instanceof BufferedMoveGeneration) {
+			this.bufferedMoveGenerator = (BufferedMoveGeneration<M, G>) moveGenerator;
+			this.encodedMoves = new int[bufferedMoveGenerator.getMaximumNumberOfMoves()];
+		} else {
+			this.bufferedMoveGenerator = null;
+			this.encodedMoves = null;
+		}
+		this.evaluator = evaluator;
+		this.positiveTerminalEvaluation = positiveTerminalEvaluation;
+		this.negativeTerminalEvaluation = negativeTerminalEvaluation;
+	}
+
+	/**
+	 *
+	 * @param copier - if not null every child is searched on a copy of its parent
+	 *               instead of with makeMove() and undoMove().
+	 */
+	public void setCopier(DeepCopy<G> copier) {
+		this.copier = copier;
+	}
+
+	/**
+	 *
+	 * @param transpositionTable - table to probe and store results in, can be null.
+	 */
+	public void setTranspositionTable(TranspositionTable transpositionTable) {
+		this.transpositionTable = transpositionTable;
+	}
+
+	/**
+	 *
+	 * @param principalVariationSearch - whether every move after the first is
+	 *                                 searched with a null window first.
+	 */
+	public void setPrincipalVariationSearch(boolean principalVariationSearch) {
+		this.principalVariationSearch = principalVariationSearch;
+	}
+
+	/**
+	 * Turns killer move and history ordering on or off. Ordering needs the encoded
+	 * moves of a BufferedMoveGeneration, it stays off for any other
+	 * MoveGeneration.
+	 *
+	 * @param moveOrdering - whether to order moves with killers and history.
+	 */
+	public void setMoveOrdering(boolean moveOrdering) {
+		if (moveOrdering && bufferedMoveGenerator != null) {
+			this.moveOrdering = new MoveOrdering(bufferedMoveGenerator.getMaximumNumberOfMoves());
+		} else {
+			this.moveOrdering = null;
+		}
+	}
+
+	/**
+	 *
+	 * @param clock - the search stops once its hard limit is reached, can be null.
+	 */
+	public void setClock(SearchClock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 *
+	 * @param interruptible - whether the search stops when its thread is
+	 *                      interrupted, true by default.
+	 */
+	public void setInterruptible(boolean interruptible) {
+		this.interruptible = interruptible;
+	}
+
+	public SearchClock getClock() {
+		return clock;
+	}
+
+	/**
+	 *
+	 * @param listener - told about every depth and every root move, can be null.
+	 */
+	public void setListener(SearchListener listener) {
+		this.listener = listener;
+	}
+
+	public SearchListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Turns on aspiration windows for searchIteration(). Passing zero turns them
+	 * off.
+	 *
+	 * @param aspirationWindow  - half the width of the first window.
+	 * @param aspirationCounter - counts the re-searches, can be null.
+	 */
+	public void setAspirationWindow(int aspirationWindow, AspirationCounter aspirationCounter) {
+		this.aspirationWindow = Integer.max(aspirationWindow, 0);
+		this.aspirationCounter = aspirationCounter;
+	}
+
+	/**
+	 * Searches the next depth of an iterative deepening search. With aspiration
+	 * windows on, every depth after the first is searched with a narrow window
+	 * centered on the value of the depth before. If the value falls outside of the
+	 * window the side it failed on is widened, twice as far every time, and the
+	 * depth is searched again. The depth is recorded in the statistics once it
+	 * finishes.
+	 *
+	 * @param gameState - the game-state to search.
+	 * @param depth     - the number of plies to search.
+	 * @param findMax   - whether the maximizing player is to move.
+	 * @return - the value of the game-state from the maximizing player's point of
+	 *         view.
+	 * @throws InterruptedException - if the search was stopped.
+	 */
+	public int searchIteration(G gameState, int depth, boolean findMax) throws InterruptedException {
+		long startTime = System.nanoTime();
+		long startNodes = getNodes();
+		if (listener == null) {
+			int value = searchWithAspirationWindow(gameState, depth, findMax);
+			statistics.finishIteration(depth, value, getNodes() - startNodes, System.nanoTime() - startTime);
+			return value;
+		}
+		Object iteration = listener.iterationStarted(depth);
+		int value;
+		try {
+			value = searchWithAspirationWindow(gameState, depth, findMax);
+		} catch (InterruptedException e) {
+			listener.iterationStopped(iteration, depth, getNodes() - startNodes, System.nanoTime() - startTime,
+					isTimedOut());
+			throw e;
+		}
+		long time = System.nanoTime() - startTime;
+		statistics.finishIteration(depth, value, getNodes() - startNodes, time);
+		listener.iterationFinished(iteration, depth, value, getNodes() - startNodes, time);
+		return value;
+	}
+
+	/**
+	 * Searches a depth of an iterative deepening search, with an aspiration window
+	 * if they are on and there is a depth before it.
+	 */
+	private int searchWithAspirationWindow(G gameState, int depth, boolean findMax) throws InterruptedException {
+		if (aspirationWindow == 0 || !hasPreviousValue) {
+			previousValue = search(gameState, depth, findMax);
+			hasPreviousValue = true;
+			return previousValue;
+		}
+		if (aspirationCounter != null) {
+			aspirationCounter.incrementNumAspirationSearches();
+		}
+		long delta = aspirationWindow;
+		int alpha = clamp(previousValue - delta);
+		int beta = clamp(previousValue + delta);
+		while (true) {
+			int value = search(gameState, depth, alpha, beta, findMax);
+			if (value <= alpha && alpha > -INFINITY) {
+				if (aspirationCounter != null) {
+					aspirationCounter.incrementNumFailLows();
+				}
+				delta *= 2;
+				alpha = clamp(Long.min((long) value - 1, previousValue - delta));
+			} else if (value >= beta && beta < INFINITY) {
+				if (aspirationCounter != null) {
+					aspirationCounter.incrementNumFailHighs();
+				}
+				delta *= 2;
+				beta = clamp(Long.max((long) value + 1, previousValue + delta));
+			} else {
+				previousValue = value;
+				return value;
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return - the value limited to the values a search can return.
+	 */
+	private static int clamp(long value) {
+		return (int) Long.max(-INFINITY, Long.min(INFINITY, value));
+	}
+
+	/**
+	 * Searches the game-state with the full window.
+	 *
+	 * @param gameState - the game-state to search.
+	 * @param depth     - the number of plies to search.
+	 * @param findMax   - whether the maximizing player is to move.
+	 * @return - the value of the game-state from the maximizing player's point of
+	 *         view.
+	 * @throws InterruptedException - if the search was stopped.
+	 */
+	public int search(G gameState, int depth, boolean findMax) throws InterruptedException {
+		return search(gameState, depth, -INFINITY, INFINITY, findMax);
+	}
+
+	/**
+	 * Searches the game-state with the given window, both bounds are from the
+	 * maximizing player's point of view.
+	 *
+	 * @param gameState - the game-state to search.
+	 * @param depth     - the number of plies to search.
+	 * @param alpha     - the lower bound of the window.
+	 * @param beta      - the upper bound of the window.
+	 * @param findMax   - whether the maximizing player is to move.
+	 * @return - the value of the game-state from the maximizing player's point of
+	 *         view.
+	 * @throws InterruptedException - if the search was stopped.
+	 */
+	public int search(G gameState, int depth, int alpha, int beta, boolean findMax) throws InterruptedException {
+		bestMove = null;
+		alpha = Integer.max(alpha, -INFINITY);
+		beta = Integer.min(beta, INFINITY);
+		followingPv = previousPvLength > 0;
+		int value;
+		if (findMax) {
+			value = negamax(gameState, 0, depth, alpha, beta, 1);
+		} else {
+			value = -negamax(gameState, 0, depth, -beta, -alpha, -1);
+		}
+		savePrincipalVariation();
+		return value;
+	}
+
+	/**
+	 * Searches a game-state that is ply moves below the root of a search that was
+	 * split up, such as a root move that is searched by its own worker. Wins and
+	 * losses are scored by their distance from that root, so the value can be
+	 * compared with the values of its siblings. No best move or principal
+	 * variation is recorded.
+	 *
+	 * @param gameState - the game-state to search.
+	 * @param ply       - distance of the game-state from the root.
+	 * @param depth     - the number of plies to search.
+	 * @param alpha     - the lower bound of the window.
+	 * @param beta      - the upper bound of the window.
+	 * @param findMax   - whether the maximizing player is to move.
+	 * @return - the value of the game-state from the maximizing player's point of
+	 *         view.
+	 * @throws InterruptedException - if the search was stopped.
+	 */
+	public int searchBelowRoot(G gameState, int ply, int depth, int alpha, int beta, boolean findMax)
+			throws InterruptedException {
+		bestMove = null;
+		alpha = Integer.max(alpha, -INFINITY);
+		beta = Integer.min(beta, INFINITY);
+		followingPv = false;
+		if (findMax) {
+			return negamax(gameState, ply, depth, alpha, beta, 1);
+		}
+		return -negamax(gameState, ply, depth, -beta, -alpha, -1);
+	}
+
+	/**
+	 *
+	 * @return - the best move found at the root by the last search, null if the
+	 *         root had no moves.
+	 */
+	public M getBestMove() {
+		return bestMove;
+	}
+
+	/**
+	 *
+	 * @return - the principal variation of the last search that completed, the
+	 *         first move is the best move at the root.
+	 */
+	public List<M> getPrincipalVariation() {
+		return principalVariation;
+	}
+
+	/**
+	 *
+	 * @return - number of nodes visited since the search was created.
+	 */
+	public long getNodes() {
+		return statistics.getNodes();
+	}
+
+	/**
+	 *
+	 * @return - what the search has done since it was created, every depth
+	 *         searched with searchIteration() is recorded as an iteration.
+	 */
+	public SearchStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Stops the search. Can be called from any thread, the search will throw an
+	 * InterruptedException shortly after.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 *
+	 * @param value - a value returned by a search.
+	 * @return - whether the value is a forced win or loss, searching deeper can not
+	 *         change it.
+	 */
+	public boolean isProven(int value) {
+		return value > positiveTerminalEvaluation || value < negativeTerminalEvaluation;
+	}
+
+	/**
+	 *
+	 * @return - whether the search is stopping because its clock reached the hard
+	 *         limit.
+	 */
+	public boolean isTimedOut() {
+		return clock != null && clock.isHardLimitReached();
+	}
+
+	/**
+	 *
+	 * @return - whether the search should stop as soon as possible.
+	 */
+	protected boolean shouldStop() {
+		return stopped || (clock != null && clock.isHardLimitReached())
+				|| (interruptible && Thread.currentThread().isInterrupted());
+	}
+
+	/**
+	 * Counts the node and every so often checks if the search should stop.
+	 *
+	 * @throws InterruptedException
+	 */
+	protected final void poll(int ply) throws InterruptedException {
+		if ((statistics.incrementNodes() & POLL_INTERVAL_MASK) == 0 && shouldStop()) {
+			throw new InterruptedException("Stopped at ply: " + ply);
+		}
+	}
+
+	/**
+	 *
+	 * @param gameState - the game-state to search.
+	 * @param ply       - distance from the root.
+	 * @param depth     - number of plies left to search.
+	 * @param alpha     - lower bound from the point of view of the player to move.
+	 * @param beta      - upper bound from the point of view of the player to move.
+	 * @param color     - 1 if the maximizing player is to move, -1 otherwise.
+	 * @return - the value of the game-state from the point of view of the player to
+	 *         move.
+	 * @throws InterruptedException - if the search was stopped.
+	 */
+	protected int negamax(G gameState, int ply, int depth, int alpha, int beta, int color)
+			throws InterruptedException {
+		poll(ply);
+		clearPrincipalVariation(ply);
+		if (depth <= 0) {
+			statistics.incrementLeafNodes();
+			return color * score(evaluate(gameState), ply);
+		}
+		long key = 0L;
+		long entry = TranspositionTable.MISS;
+		if (transpositionTable != null) {
+			key = gameState.getCanonicalKey();
+			entry = transpositionTable.probe(key);
+			statistics.incrementTranspositionTableProbes(entry != TranspositionTable.MISS);
+			if (ply > 0 && entry != TranspositionTable.MISS && TranspositionTable.getDepth(entry) >= depth) {
+				int score = fromTableScore(TranspositionTable.getScore(entry), ply, color);
+				int bound = TranspositionTable.getBound(entry);
+				if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+						|| (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+					return score;
+				}
+			}
+		}
+		int evaluation = evaluate(gameState);
+		if (isTerminal(evaluation)) {
+			statistics.incrementLeafNodes();
+			return color * score(evaluation, ply);
+		}
+		if (ply > 0) {
+			// Mate distance pruning, nothing can score better than winning or worse
+			// than losing with the next move.
+			int win = score(positiveTerminalEvaluation, ply + 1);
+			int loss = score(negativeTerminalEvaluation, ply + 1);
+			alpha = Integer.max(alpha, color == 1 ? loss : -win);
+			beta = Integer.min(beta, color == 1 ? win : -loss);
+			if (alpha >= beta) {
+				return alpha;
+			}
+		}
+		int value = searchMoves(gameState, ply, depth, alpha, beta, color, key,
+				TranspositionTable.getMoveIndex(entry));
+		if (value == -INFINITY) {
+			statistics.incrementLeafNodes();
+			return color * score(evaluation, ply);
+		}
+		statistics.incrementInteriorNodes();
+		return value;
+	}
+
+	/**
+	 * Searches every move of an interior node and stores the result in the
+	 * transposition table.
+	 *
+	 * @param key           - key of the game-state, only valid if there is a
+	 *                      transposition table.
+	 * @param hashMoveIndex - the index of the move to search first.
+	 * @return - the value of the node, or -INFINITY if the node has no moves.
+	 * @throws InterruptedException
+	 */
+	protected int searchMoves(G gameState, int ply, int depth, int alpha, int beta, int color, long key,
+			int hashMoveIndex) throws InterruptedException {
+		int alphaOriginal = alpha;
+		int best = -INFINITY;
+		int bestMoveIndex = TranspositionTable.NO_MOVE;
+		MoveList<M> moves = orderedMoves(gameState, ply, color, hashMoveIndex);
+		for (int index = 0; index < moves.size(); ++index) {
+			M move = moves.get(index);
+			int moveIndex = moves.getGeneratedIndex(index);
+			int value = searchChild(gameState, move, ply, depth, alpha, beta, color, index == 0);
+			if (value > best) {
+				best = value;
+				bestMoveIndex = moveIndex;
+				if (ply == 0) {
+					bestMove = move;
+				}
+				if (value > alpha) {
+					alpha = value;
+					updatePrincipalVariation(ply, move, moveIndex, this);
+					if (alpha >= beta) {
+						statistics.incrementBetaCutoffs(index);
+						if (moveOrdering != null) {
+							moveOrdering.cutoff(moves.getEncodedMove(index), ply, depth, color);
+						}
+						store(key, ply, depth, TranspositionTable.LOWER_BOUND, best, moveIndex, color);
+						return best;
+					}
+				}
+			}
+		}
+		if (moves.size() > 0) {
+			store(key, ply, depth, best > alphaOriginal ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND,
+					best, bestMoveIndex, color);
+		}
+		return best;
+	}
+
+	/**
+	 * Makes the move, searches the child and unmakes the move. With Principal
+	 * Variation Search every move but the first is searched with a null window
+	 * first and only re-searched with the full window if it is inside of it.
+	 *
+	 * @param firstMove - whether this is the first move searched at the node.
+	 * @return - the value of the child from the point of view of the player to move
+	 *         at the parent.
+	 * @throws InterruptedException
+	 */
+	protected int searchChild(G gameState, M move, int ply, int depth, int alpha, int beta, int color,
+			boolean firstMove) throws InterruptedException {
+		if (ply == 0 && listener != null) {
+			Object rootMove = listener.rootMoveStarted(move, depth);
+			long startTime = System.nanoTime();
+			long startNodes = getNodes();
+			int value = searchMove(gameState, move, ply, depth, alpha, beta, color, firstMove);
+			listener.rootMoveFinished(rootMove, move, depth, color * value, getNodes() - startNodes,
+					System.nanoTime() - startTime);
+			return value;
+		}
+		return searchMove(gameState, move, ply, depth, alpha, beta, color, firstMove);
+	}
+
+	/**
+	 * Searches the child of the move, searchChild() without telling the listener.
+	 */
+	private int searchMove(G gameState, M move, int ply, int depth, int alpha, int beta, int color,
+			boolean firstMove) throws InterruptedException {
+		G child = enterChild(gameState, move);
+		try {
+			int value;
+			if (principalVariationSearch && !firstMove && (long) alpha + 1 < beta) {
+				value = -negamax(child, ply + 1, depth - 1, -alpha - 1, -alpha, -color);
+				if (value > alpha && value < beta) {
+					value = -negamax(child, ply + 1, depth - 1, -beta, -alpha, -color);
+				}
+			} else {
+				value = -negamax(child, ply + 1, depth - 1, -beta, -alpha, -color);
+			}
+			if (ply == 0) {
+				move.setValue(color * value);
+			}
+			return value;
+		} finally {
+			exitChild(gameState, move);
+			followingPv = false;
+		}
+	}
+
+	/**
+	 *
+	 * @return - the game-state after the move is made.
+	 */
+	protected G enterChild(G gameState, M move) {
+		if (copier != null) {
+			gameState = copier.deepCopy(gameState);
+		}
+		gameState.makeMove(move);
+		return gameState;
+	}
+
+	/**
+	 * Reverts enterChild().
+	 */
+	protected void exitChild(G gameState, M move) {
+		if (copier == null) {
+			gameState.undoMove(move);
+		}
+	}
+
+	/**
+	 * Generates the moves of the game-state into the move list of the ply. If the
+	 * node is on the previous principal variation its move is moved to the front
+	 * so that it is searched first, otherwise the hash move is if there is one.
+	 * The rest are ordered by the MoveOrdering if there is one.
+	 * The root always uses generateMoves(G) so that the moves whose values are set
+	 * belong to this search alone, and leaves out symmetric duplicates.
+	 *
+	 * @param ply           - distance of the game-state from the root.
+	 * @param color         - 1 if the maximizing player is to move, -1 otherwise.
+	 * @param hashMoveIndex - index of the move in the generated moves to search
+	 *                      first or TranspositionTable.NO_MOVE.
+	 * @return - the move list of the ply, it is overwritten by the next node
+	 *         searched at the same ply.
+	 */
+	protected MoveList<M> orderedMoves(G gameState, int ply, int color, int hashMoveIndex) {
+		MoveList<M> moves = getMoveList(ply);
+		moves.clear();
+		if (bufferedMoveGenerator != null && ply > 0) {
+			int count = bufferedMoveGenerator.generateMoves(gameState, encodedMoves);
+			for (int i = 0; i < count; ++i) {
+				moves.add(bufferedMoveGenerator.getMove(encodedMoves[i]), encodedMoves[i]);
+			}
+		} else {
+			boolean symmetric = ply == 0 && gameState.isSymmetric();
+			for (M move : moveGenerator.generateMoves(gameState)) {
+				if (symmetric && isSymmetricDuplicate(gameState, move, moves.size())) {
+					continue;
+				}
+				moves.add(move, bufferedMoveGenerator == null ? MoveList.NO_ENCODED_MOVE
+						: bufferedMoveGenerator.encode(move));
+			}
+		}
+		int firstMoveIndex = hashMoveIndex;
+		if (followingPv && ply < previousPvLength) {
+			firstMoveIndex = previousPv[ply];
+		}
+		int ordered = 0;
+		if (firstMoveIndex >= 0 && firstMoveIndex < moves.size()) {
+			moves.moveToFront(firstMoveIndex);
+			ordered = 1;
+		}
+		if (moveOrdering != null) {
+			moveOrdering.order(moves, ordered, ply, color);
+		}
+		return moves;
+	}
+
+	/**
+	 * Checks whether the move leads to a symmetric version of a child of the root
+	 * that is already in the root's move list, if not the child is recorded.
+	 *
+	 * @param count - number of moves in the root's move list.
+	 * @return - whether the move can be left out.
+	 */
+	private boolean isSymmetricDuplicate(G gameState, M move, int count) {
+		G child = enterChild(gameState, move);
+		long key = child.getCanonicalKey();
+		exitChild(gameState, move);
+		for (int i = 0; i < count; ++i) {
+			if (rootChildKeys[i] == key) {
+				return true;
+			}
+		}
+		if (count == rootChildKeys.length) {
+			rootChildKeys = Arrays.copyOf(rootChildKeys, Integer.max(count * 2, 8));
+		}
+		rootChildKeys[count] = key;
+		return false;
+	}
+
+	/**
+	 *
+	 * @return - the move list of the ply, created the first time the ply is
+	 *         reached.
+	 */
+	private MoveList<M> getMoveList(int ply) {
+		while (moveLists.size() <= ply) {
+			moveLists.add(encodedMoves == null ? new MoveList<M>() : new MoveList<M>(encodedMoves.length));
+		}
+		return moveLists.get(ply);
+	}
+
+	/**
+	 * Empties the principal variation of the ply, growing the table if the ply has
+	 * not been reached before.
+	 */
+	private void clearPrincipalVariation(int ply) {
+		if (ply >= pvCapacity) {
+			growPrincipalVariation(ply + 1);
+		}
+		pvLengths[ply] = 0;
+	}
+
+	/**
+	 * Makes the move followed by the principal variation of the child the
+	 * principal variation of the ply.
+	 *
+	 * @param ply       - distance of the node from the root.
+	 * @param move      - the move that raised alpha.
+	 * @param moveIndex - generated index of the move.
+	 * @param child     - the search that searched the child, usually this one.
+	 */
+	protected final void updatePrincipalVariation(int ply, M move, int moveIndex, NegamaxSearch<M, G> child) {
+		if (pvCapacity < child.pvCapacity) {
+			growPrincipalVariation(child.pvCapacity);
+		}
+		int length = ply + 1 < child.pvCapacity ? child.pvLengths[ply + 1] : 0;
+		int row = ply * pvCapacity;
+		int childRow = (ply + 1) * child.pvCapacity;
+		pvIndices[row] = moveIndex;
+		pvMoves[row] = move;
+		System.arraycopy(child.pvIndices, childRow, pvIndices, row + 1, length);
+		System.arraycopy(child.pvMoves, childRow, pvMoves, row + 1, length);
+		pvLengths[ply] = length + 1;
+	}
+
+	/**
+	 * Grows the principal variation table, keeping the lines already in it.
+	 *
+	 * @param capacity - the least number of plies the table must hold.
+	 */
+	private void growPrincipalVariation(int capacity) {
+		capacity = Integer.max(capacity, Integer.max(pvCapacity * 2, 8));
+		int[] lengths = Arrays.copyOf(pvLengths, capacity);
+		int[] indices = new int[capacity * capacity];
+		Object[] moves = new Object[capacity * capacity];
+		for (int ply = 0; ply < pvCapacity; ++ply) {
+			System.arraycopy(pvIndices, ply * pvCapacity, indices, ply * capacity, pvLengths[ply]);
+			System.arraycopy(pvMoves, ply * pvCapacity, moves, ply * capacity, pvLengths[ply]);
+		}
+		pvCapacity = capacity;
+		pvLengths = lengths;
+		pvIndices = indices;
+		pvMoves = moves;
+	}
+
+	/**
+	 * Keeps the principal variation of the search that just completed so the next
+	 * search can follow it. A search that failed low at the root has no principal
+	 * variation, the previous one is kept instead.
+	 */
+	@SuppressWarnings("unchecked")
+	private void savePrincipalVariation() {
+		int length = pvCapacity > 0 ? pvLengths[0] : 0;
+		if (length == 0 && previousPvLength > 0) {
+			return;
+		}
+		previousPv = Arrays.copyOf(pvIndices, length);
+		previousPvLength = length;
+		List<M> moves = new ArrayList<M>(length);
+		for (int i = 0; i < length; ++i) {
+			moves.add((M) pvMoves[i]);
+		}
+		principalVariation = Collections.unmodifiableList(moves);
+	}
+
+	/**
+	 * Stores a search result in the transposition table if there is one.
+	 *
+	 * @param ply   - distance of the node from the root.
+	 * @param color - 1 if the maximizing player is to move, -1 otherwise.
+	 */
+	protected void store(long key, int ply, int depth, int bound, int score, int moveIndex, int color) {
+		if (transpositionTable != null) {
+			transpositionTable.store(key, depth, bound, toTableScore(score, ply, color), moveIndex);
+		}
+	}
+
+	/**
+	 *
+	 * @return - the score with the distance of a win or loss counted from the node
+	 *         instead of from the root, so that it can be used at any ply.
+	 */
+	private int toTableScore(int score, int ply, int color) {
+		int value = color * score;
+		if (value > positiveTerminalEvaluation) {
+			value += ply;
+		} else if (value < negativeTerminalEvaluation) {
+			value -= ply;
+		}
+		return color * value;
+	}
+
+	/**
+	 * Reverts toTableScore().
+	 */
+	private int fromTableScore(int score, int ply, int color) {
+		int value = color * score;
+		if (value > positiveTerminalEvaluation) {
+			value -= ply;
+		} else if (value < negativeTerminalEvaluation) {
+			value += ply;
+		}
+		return color * value;
+	}
+
+	/**
+	 *
+	 * @return - an evaluation of the game-state from the maximizing player's point
+	 *         of view.
+	 */
+	protected int evaluate(G gameState) {
+		return evaluator.evaluate(gameState, positiveTerminalEvaluation, negativeTerminalEvaluation);
+	}
+
+	/**
+	 *
+	 * @param evaluation - an evaluation of a game-state.
+	 * @param ply        - distance of the game-state from the root.
+	 * @return - the evaluation, or the score of the win or loss if the game is
+	 *         over.
+	 */
+	protected int score(int evaluation, int ply) {
+		if (evaluation == positiveTerminalEvaluation) {
+			return positiveTerminalEvaluation + MAXIMUM_PLY - ply;
+		}
+		if (evaluation == negativeTerminalEvaluation) {
+			return negativeTerminalEvaluation - MAXIMUM_PLY + ply;
+		}
+		return evaluation;
+	}
+
+	/**
+	 *
+	 * @return - whether the evaluation means the game is over.
+	 */
+	protected boolean isTerminal(int evaluation) {
+		return evaluation == positiveTerminalEvaluation || evaluation == negativeTerminalEvaluation;
+	}
+
+}
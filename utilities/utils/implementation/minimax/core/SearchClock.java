@@ -0,0 +1,138 @@
+package utils.implementation.minimax.core;
+
+/**
+ * Time control of an iterative deepening search. The clock has two limits. The
+ * hard limit is the most time the search may ever take, a search that reaches
+ * it is stopped by the node polling of NegamaxSearch. The soft limit is the
+ * time after which no new depth is started.
+ *
+ * Before a new depth is started the clock also predicts how long it will take
+ * from the effective branching factor of the depths before it, the number of
+ * nodes of the last depth divided by the number of nodes of the depth before
+ * that. A depth that is not expected to finish before the hard limit is not
+ * started at all, since the time spent on it would be thrown away.
+ *
+ * The limits are read by every thread of a search, the iterations are only
+ * recorded by the thread that runs the iterative deepening loop.
+ *
+ * @author Riley McCuen
+ *
+ */
+public class SearchClock {
+
+	/**
+	 * Fraction of the time a search is given that is used as the soft limit when
+	 * only the hard limit is given.
+	 */
+	public static final double DEFAULT_SOFT_LIMIT_FRACTION = 0.5;
+
+	private final long startTime;
+	private final long softDeadline;
+	private final long hardDeadline;
+
+	private int iterations = 0;
+	private long lastIterationEnd;
+	private long lastIterationTime = 0;
+	private long lastIterationNodes = 0;
+	private double effectiveBranchingFactor = 0;
+
+	/**
+	 * Starts a clock whose soft limit is DEFAULT_SOFT_LIMIT_FRACTION of the hard
+	 * limit.
+	 *
+	 * @param hardLimit - most milliseconds the search may take.
+	 */
+	public SearchClock(long hardLimit) {
+		this((long) (hardLimit * DEFAULT_SOFT_LIMIT_FRACTION), hardLimit);
+	}
+
+	/**
+	 * Starts a clock.
+	 *
+	 * @param softLimit - milliseconds after which no new depth is started.
+	 * @param hardLimit - most milliseconds the search may take.
+	 */
+	public SearchClock(long softLimit, long hardLimit) {
+		this.startTime = System.nanoTime();
+		this.lastIterationEnd = startTime;
+		this.hardDeadline = startTime + toNanos(hardLimit);
+		this.softDeadline = startTime + toNanos(Long.min(softLimit, hardLimit));
+	}
+
+	private static long toNanos(long milliseconds) {
+		return Long.max(milliseconds, 0) * 1000000L;
+	}
+
+	/**
+	 *
+	 * @return - whether the search has to stop right away.
+	 */
+	public boolean isHardLimitReached() {
+		return System.nanoTime() - hardDeadline >= 0;
+	}
+
+	/**
+	 * Records a depth that finished.
+	 *
+	 * @param nodes - number of nodes the depth searched, zero if unknown.
+	 */
+	public void finishIteration(long nodes) {
+		long now = System.nanoTime();
+		if (nodes > 0 && lastIterationNodes > 0) {
+			effectiveBranchingFactor = (double) nodes / lastIterationNodes;
+		}
+		lastIterationTime = now - lastIterationEnd;
+		lastIterationEnd = now;
+		lastIterationNodes = nodes;
+		++iterations;
+	}
+
+	/**
+	 *
+	 * @return - whether the next depth should be started. It should not if the
+	 *         soft limit has been reached or if the depth is not expected to finish
+	 *         before the hard limit.
+	 */
+	public boolean canStartIteration() {
+		long now = System.nanoTime();
+		if (now - softDeadline >= 0) {
+			return false;
+		}
+		if (iterations < 2 || effectiveBranchingFactor <= 0) {
+			return true;
+		}
+		double predictedTime = lastIterationTime * effectiveBranchingFactor;
+		return (now - hardDeadline) + predictedTime <= 0;
+	}
+
+	/**
+	 *
+	 * @return - the number of nodes of the last depth divided by the number of
+	 *         nodes of the depth before it, zero until two depths have finished.
+	 */
+	public double getEffectiveBranchingFactor() {
+		return effectiveBranchingFactor;
+	}
+
+	/**
+	 *
+	 * @return - number of depths that finished.
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 *
+	 * @return - milliseconds since the clock was started.
+	 */
+	public long getElapsedTime() {
+		return (System.nanoTime() - startTime) / 1000000L;
+	}
+
+	@Override
+	public String toString() {
+		return "Search clock at " + getElapsedTime() + "ms after " + iterations + " depths";
+	}
+
+}
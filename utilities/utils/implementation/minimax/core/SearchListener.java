@@ -0,0 +1,77 @@
+package utils.implementation.minimax.core;
+
+import utils.implementation.core.AbstractMove;
+
+/**
+ * Is told what a search is doing while it runs, so it can be traced by tools
+ * outside of the framework such as Java Flight Recorder. An Agent only tells the
+ * listener about the search it runs itself: every depth of an iterative
+ * deepening search, every move searched at the root and every depth that was
+ * stopped by the time limit or cancelled. Without a listener none of this costs
+ * anything.
+ *
+ * The started methods return an object that is handed back to the matching
+ * finished or stopped method, a listener can keep whatever it needs in it.
+ * Agents that search the root moves in parallel call the root move methods from
+ * several threads at once.
+ *
+ * @author Riley McCuen
+ *
+ */
+public interface SearchListener {
+
+	/**
+	 * Called before a depth is searched.
+	 *
+	 * @param depth - the depth that is about to be searched.
+	 * @return - handed back when the depth is over, can be null.
+	 */
+	public Object iterationStarted(int depth);
+
+	/**
+	 * Called once a depth has finished.
+	 *
+	 * @param iteration - what iterationStarted() returned.
+	 * @param depth     - the depth that was searched.
+	 * @param value     - the value the depth returned.
+	 * @param nodes     - the nodes the depth visited.
+	 * @param time      - nanoseconds the depth took.
+	 */
+	public void iterationFinished(Object iteration, int depth, int value, long nodes, long time);
+
+	/**
+	 * Called instead of iterationFinished() when a depth did not finish.
+	 *
+	 * @param iteration - what iterationStarted() returned.
+	 * @param depth     - the depth that was being searched.
+	 * @param nodes     - the nodes the depth visited before it stopped.
+	 * @param time      - nanoseconds the depth ran for.
+	 * @param timedOut  - true if the time limit was reached, false if the search
+	 *                  was stopped or interrupted.
+	 */
+	public void iterationStopped(Object iteration, int depth, long nodes, long time, boolean timedOut);
+
+	/**
+	 * Called before a move at the root is searched.
+	 *
+	 * @param move  - the move that is about to be searched.
+	 * @param depth - the depth the root is searched to.
+	 * @return - handed back when the move is done, can be null.
+	 */
+	public Object rootMoveStarted(AbstractMove move, int depth);
+
+	/**
+	 * Called once the move has been searched, it is not called if the search was
+	 * stopped before the move was done.
+	 *
+	 * @param rootMove - what rootMoveStarted() returned.
+	 * @param move     - the move that was searched.
+	 * @param depth    - the depth the root is searched to.
+	 * @param value    - the value of the move from the maximizing player's point
+	 *                 of view, a bound if the move was cut off.
+	 * @param nodes    - the nodes searched below the move.
+	 * @param time     - nanoseconds the move took.
+	 */
+	public void rootMoveFinished(Object rootMove, AbstractMove move, int depth, int value, long nodes, long time);
+
+}
@@ -0,0 +1,375 @@
+package utils.implementation.minimax.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import utils.performance.StripedCounter;
+
+/**
+ * Counts what a NegamaxSearch does so a slow search can be traced back to its
+ * cause. Every node the search visits is counted, along with how many of them
+ * searched their moves (interior nodes) and how many were evaluated instead
+ * (leaf nodes), the rest were ended by the transposition table or by mate
+ * distance pruning. Beta-cutoffs are counted by the position of the move that
+ * caused them in the order the moves were searched, the more of them the first
+ * move causes the better the move ordering is. Every depth of an iterative
+ * deepening search is recorded as an Iteration with its nodes and its time,
+ * from which the nodes per second and the effective branching factor follow.
+ *
+ * Statistics belong to a single search and are not thread safe, the counters
+ * are plain fields that only the thread running the search writes to. Searches
+ * that run below it report to it with add() from the same thread, or with
+ * addConcurrently() from their own threads. Counters added concurrently go into
+ * StripedCounters that are made the first time they are needed, so threads
+ * reporting at once neither wait for each other nor share a cache line and
+ * every getter adds them to the plain counter.
+ *
+ * @author Riley McCuen
+ *
+ */
+public class SearchStatistics {
+
+	/**
+	 * Cutoffs are counted by the position of the cutoff move, every position from
+	 * CUTOFF_POSITIONS - 1 on is counted together.
+	 */
+	public static final int CUTOFF_POSITIONS = 8;
+
+	/**
+	 * Positions of the counters in the striped counters.
+	 */
+	private static final int NODES = 0;
+	private static final int INTERIOR_NODES = 1;
+	private static final int LEAF_NODES = 2;
+	private static final int BETA_CUTOFFS = 3;
+	private static final int TRANSPOSITION_TABLE_PROBES = 4;
+	private static final int TRANSPOSITION_TABLE_HITS = 5;
+	private static final int CUTOFFS_AT_POSITION = 6;
+	private static final int COUNTERS = CUTOFFS_AT_POSITION + CUTOFF_POSITIONS;
+
+	private long nodes = 0;
+	private long interiorNodes = 0;
+	private long leafNodes = 0;
+	private long betaCutoffs = 0;
+	private final long[] cutoffsAtPosition = new long[CUTOFF_POSITIONS];
+	private long transpositionTableProbes = 0;
+	private long transpositionTableHits = 0;
+	private final List<Iteration> iterations = new ArrayList<Iteration>();
+	private volatile StripedCounter[] striped = null;
+
+	public SearchStatistics() {
+	}
+
+	/**
+	 * Counts a node.
+	 *
+	 * @return - the number of nodes the search counted itself including this one,
+	 *         nodes added by other threads are left out.
+	 */
+	public long incrementNodes() {
+		return ++nodes;
+	}
+
+	public void incrementInteriorNodes() {
+		interiorNodes += 1;
+	}
+
+	public void incrementLeafNodes() {
+		leafNodes += 1;
+	}
+
+	/**
+	 *
+	 * @param position - position of the move that caused the cutoff in the order
+	 *                 the moves were searched, zero for the first move.
+	 */
+	public void incrementBetaCutoffs(int position) {
+		betaCutoffs += 1;
+		cutoffsAtPosition[Integer.min(position, CUTOFF_POSITIONS - 1)] += 1;
+	}
+
+	/**
+	 *
+	 * @param hit - whether the table had an entry for the game-state.
+	 */
+	public void incrementTranspositionTableProbes(boolean hit) {
+		transpositionTableProbes += 1;
+		if (hit) {
+			transpositionTableHits += 1;
+		}
+	}
+
+	/**
+	 * Records a depth that finished.
+	 *
+	 * @param depth - the depth that was searched.
+	 * @param value - the value the depth returned.
+	 * @param nodes - the nodes the depth visited.
+	 * @param time  - nanoseconds the depth took.
+	 */
+	public void finishIteration(int depth, int value, long nodes, long time) {
+		iterations.add(new Iteration(depth, value, nodes, time));
+	}
+
+	/**
+	 * Adds the counters of a search that ran below the search these statistics
+	 * belong to, from the thread running the search. Iterations are not added,
+	 * they belong to the search that ran them.
+	 *
+	 * @param statistics - statistics of the search below, it must be done.
+	 */
+	public void add(SearchStatistics statistics) {
+		nodes += statistics.getNodes();
+		interiorNodes += statistics.getInteriorNodes();
+		leafNodes += statistics.getLeafNodes();
+		betaCutoffs += statistics.getBetaCutoffs();
+		for (int position = 0; position < CUTOFF_POSITIONS; ++position) {
+			cutoffsAtPosition[position] += statistics.getBetaCutoffs(position);
+		}
+		transpositionTableProbes += statistics.getTranspositionTableProbes();
+		transpositionTableHits += statistics.getTranspositionTableHits();
+	}
+
+	/**
+	 * Adds the counters of a search that ran below the search these statistics
+	 * belong to, from any thread. Iterations are not added, they belong to the
+	 * search that ran them.
+	 *
+	 * @param statistics - statistics of the search below, it must be done.
+	 */
+	public void addConcurrently(SearchStatistics statistics) {
+		StripedCounter[] striped = getStriped();
+		striped[NODES].add(statistics.getNodes());
+		striped[INTERIOR_NODES].add(statistics.getInteriorNodes());
+		striped[LEAF_NODES].add(statistics.getLeafNodes());
+		striped[BETA_CUTOFFS].add(statistics.getBetaCutoffs());
+		for (int position = 0; position < CUTOFF_POSITIONS; ++position) {
+			striped[CUTOFFS_AT_POSITION + position].add(statistics.getBetaCutoffs(position));
+		}
+		striped[TRANSPOSITION_TABLE_PROBES].add(statistics.getTranspositionTableProbes());
+		striped[TRANSPOSITION_TABLE_HITS].add(statistics.getTranspositionTableHits());
+	}
+
+	/**
+	 *
+	 * @return - the striped counters, made by the first thread that needs them.
+	 */
+	private StripedCounter[] getStriped() {
+		StripedCounter[] striped = this.striped;
+		if (striped == null) {
+			synchronized (this) {
+				striped = this.striped;
+				if (striped == null) {
+					striped = new StripedCounter[COUNTERS];
+					for (int counter = 0; counter < COUNTERS; ++counter) {
+						striped[counter] = new StripedCounter();
+					}
+					this.striped = striped;
+				}
+			}
+		}
+		return striped;
+	}
+
+	/**
+	 *
+	 * @param counter - position of the counter in the striped counters.
+	 * @return - what other threads added to the counter.
+	 */
+	private long getStriped(int counter) {
+		StripedCounter[] striped = this.striped;
+		return striped == null ? 0 : striped[counter].sum();
+	}
+
+	/**
+	 * Resets the statistics to get ready for another search.
+	 */
+	public void reset() {
+		nodes = 0;
+		interiorNodes = 0;
+		leafNodes = 0;
+		betaCutoffs = 0;
+		Arrays.fill(cutoffsAtPosition, 0);
+		transpositionTableProbes = 0;
+		transpositionTableHits = 0;
+		iterations.clear();
+		StripedCounter[] striped = this.striped;
+		if (striped != null) {
+			for (StripedCounter counter : striped) {
+				counter.reset();
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return - every node visited.
+	 */
+	public long getNodes() {
+		return nodes + getStriped(NODES);
+	}
+
+	public long getInteriorNodes() {
+		return interiorNodes + getStriped(INTERIOR_NODES);
+	}
+
+	public long getLeafNodes() {
+		return leafNodes + getStriped(LEAF_NODES);
+	}
+
+	public long getBetaCutoffs() {
+		return betaCutoffs + getStriped(BETA_CUTOFFS);
+	}
+
+	/**
+	 *
+	 * @param position - position of the cutoff move, zero for the first move.
+	 * @return - the number of cutoffs caused by the move at the position, the last
+	 *         position counts every later position as well.
+	 */
+	public long getBetaCutoffs(int position) {
+		int index = Integer.min(position, CUTOFF_POSITIONS - 1);
+		return cutoffsAtPosition[index] + getStriped(CUTOFFS_AT_POSITION + index);
+	}
+
+	/**
+	 *
+	 * @return - the fraction of the cutoffs caused by the first move searched,
+	 *         zero if there were none.
+	 */
+	public double getFirstMoveCutoffRate() {
+		long betaCutoffs = getBetaCutoffs();
+		return betaCutoffs == 0 ? 0 : (double) getBetaCutoffs(0) / betaCutoffs;
+	}
+
+	public long getTranspositionTableProbes() {
+		return transpositionTableProbes + getStriped(TRANSPOSITION_TABLE_PROBES);
+	}
+
+	public long getTranspositionTableHits() {
+		return transpositionTableHits + getStriped(TRANSPOSITION_TABLE_HITS);
+	}
+
+	/**
+	 *
+	 * @return - the fraction of probes that found an entry, zero if there were
+	 *         none.
+	 */
+	public double getTranspositionTableHitRate() {
+		long probes = getTranspositionTableProbes();
+		return probes == 0 ? 0 : (double) getTranspositionTableHits() / probes;
+	}
+
+	/**
+	 *
+	 * @return - every depth that finished, shallowest first.
+	 */
+	public List<Iteration> getIterations() {
+		return Collections.unmodifiableList(iterations);
+	}
+
+	/**
+	 *
+	 * @return - nanoseconds the depths that finished took together.
+	 */
+	public long getTime() {
+		long time = 0;
+		for (Iteration iteration : iterations) {
+			time += iteration.time;
+		}
+		return time;
+	}
+
+	/**
+	 *
+	 * @return - nodes per second over the depths that finished, zero if none did.
+	 */
+	public double getNodesPerSecond() {
+		long nodes = 0;
+		for (Iteration iteration : iterations) {
+			nodes += iteration.nodes;
+		}
+		long time = getTime();
+		return time == 0 ? 0 : nodes * 1e9 / time;
+	}
+
+	/**
+	 *
+	 * @return - the nodes of the last depth divided by the nodes of the depth
+	 *         before it, zero until two depths have finished.
+	 */
+	public double getEffectiveBranchingFactor() {
+		int size = iterations.size();
+		if (size < 2 || iterations.get(size - 2).nodes == 0) {
+			return 0;
+		}
+		return (double) iterations.get(size - 1).nodes / iterations.get(size - 2).nodes;
+	}
+
+	/**
+	 * Provides a nice string with every counter.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Nodes: %d (Interior: %d, Leaf: %d), Beta-Cutoffs: %d (First Move: %.1f%%), "
+				+ "TT Probes: %d (Hits: %.1f%%), Depths: %d, Time: %.1fms, NPS: %.0f, EBF: %.2f", getNodes(),
+				getInteriorNodes(), getLeafNodes(), getBetaCutoffs(), 100 * getFirstMoveCutoffRate(),
+				getTranspositionTableProbes(), 100 * getTranspositionTableHitRate(), iterations.size(),
+				getTime() / 1e6, getNodesPerSecond(), getEffectiveBranchingFactor());
+	}
+
+	/**
+	 * A depth of an iterative deepening search that finished.
+	 */
+	public static class Iteration {
+
+		private final int depth;
+		private final int value;
+		private final long nodes;
+		private final long time;
+
+		private Iteration(int depth, int value, long nodes, long time) {
+			this.depth = depth;
+			this.value = value;
+			this.nodes = nodes;
+			this.time = time;
+		}
+
+		public int getDepth() {
+			return depth;
+		}
+
+		public int getValue() {
+			return value;
+		}
+
+		public long getNodes() {
+			return nodes;
+		}
+
+		/**
+		 *
+		 * @return - nanoseconds the depth took.
+		 */
+		public long getTime() {
+			return time;
+		}
+
+		/**
+		 *
+		 * @return - nodes per second of the depth.
+		 */
+		public double getNodesPerSecond() {
+			return time == 0 ? 0 : nodes * 1e9 / time;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Depth: %d, Value: %d, Nodes: %d, Time: %.1fms", depth, value, nodes, time / 1e6);
+		}
+
+	}
+
+}
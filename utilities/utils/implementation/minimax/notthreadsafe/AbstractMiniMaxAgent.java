@@ -1,17 +1,26 @@
 package utils.implementation.minimax.notthreadsafe;
 
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.ThreadFactory;
 
 import utils.implementation.core.AbstractGameState;
 import utils.implementation.core.AbstractMove;
+import utils.implementation.core.DeepCopy;
 import utils.implementation.core.EvaluationFunction;
 import utils.implementation.core.MoveGeneration;
+import utils.implementation.minimax.book.OpeningBook;
+import utils.implementation.minimax.core.EndgameSolver;
+import utils.implementation.minimax.core.NegamaxSearch;
+import utils.implementation.minimax.core.SearchClock;
+import utils.implementation.minimax.core.SearchListener;
+import utils.implementation.minimax.core.SearchStatistics;
+import utils.implementation.minimax.tables.TranspositionTable;
+import utils.performance.AspirationCounter;
 
 /**
  * 
@@ -19,7 +28,8 @@ import utils.implementation.core.MoveGeneration;
  * the capability to search the game-tree any game suited to using the MiniMax
  * algorithm. This is not the fastest implementation because of all the objects
  * used, however, this search algorithm does use alpha-beta pruning drastically
- * increasing performance.
+ * increasing performance. The search itself is done by a NegamaxSearch that is
+ * configured with the settings of this Agent.
  * 
  * @author Riley McCuen
  *
@@ -35,14 +45,76 @@ public abstract class AbstractMiniMaxAgent<M extends AbstractMove, G extends Abs
 	public static final int MINIMUM_DEPTH = 0;
 	public static final int ALPHA_BEGINNING_VALUE = Integer.MIN_VALUE;
 	public static final int BETA_BEGINNING_VALUE = Integer.MAX_VALUE;
-	public static final long DEFAULT_DELAYMS = 5000;
 
 	protected G gameState;
 	protected MoveGeneration<M, G> moveGenerator;
 	protected EvaluationFunction<G> evaluator;
 	protected M bestMove = null;
+	protected List<M> principalVariation = Collections.emptyList();
+	protected SearchStatistics statistics = new SearchStatistics();
 	protected int maxDepth = 0;
-	protected final ExecutorService xs = Executors.newSingleThreadScheduledExecutor();
+
+	/**
+	 * Optional transposition table, if it is null the search never consults one.
+	 * The table is keyed on AbstractGameState.getKey() so it should only be used
+	 * with game-states whose keys depend on the contents of the game-state.
+	 */
+	protected TranspositionTable transpositionTable = null;
+
+	/**
+	 * Lazy SMP helpers. When helperThreads is more than zero iterative deepening
+	 * searches start that many helpers that each search their own copy of the
+	 * game-state at staggered depths and share the transposition table with this
+	 * Agent. The helpers only fill the table, the move this Agent finds is always
+	 * the one returned.
+	 */
+	protected DeepCopy<G> copier = null;
+	protected int helperThreads = 0;
+	protected ExecutorService helperExecutor = null;
+
+	/**
+	 * Principal Variation Search (NegaScout) mode. When on only the first move of
+	 * every node is searched with the full window, the rest are searched with a
+	 * null window that can only tell if they are better than the best move so far
+	 * and are re-searched with the full window if they are.
+	 */
+	protected boolean principalVariationSearch = false;
+
+	/**
+	 * Killer move and history heuristic ordering. Only used when the
+	 * MoveGeneration is a BufferedMoveGeneration since the tables are keyed on
+	 * encoded moves.
+	 */
+	protected boolean moveOrdering = false;
+
+	/**
+	 * Aspiration windows for iterative deepening searches. When aspirationWindow
+	 * is more than zero every depth after the first is searched with a window
+	 * that wide on each side of the value of the depth before. Re-searches are
+	 * counted by the aspirationCounter.
+	 */
+	protected int aspirationWindow = 0;
+	protected final AspirationCounter aspirationCounter = new AspirationCounter();
+
+	/**
+	 * Optional opening book that is looked up before every search. A game-state
+	 * that is in the book is not searched at all, its book move is returned.
+	 */
+	protected OpeningBook<M, G> openingBook = null;
+
+	/**
+	 * Endgame solver mode. When the solver is set, game-states with fewer than
+	 * endgameThreshold plies left are solved to the end of the game instead of
+	 * being searched. Only Agents that override getRemainingPlies() ever use it.
+	 */
+	protected EndgameSolver<M, G> endgameSolver = null;
+	protected int endgameThreshold = 0;
+
+	/**
+	 * Optional listener that is told about every depth and every root move of the
+	 * searches of this Agent, nothing is reported without one.
+	 */
+	protected SearchListener searchListener = null;
 
 	/**
 	 * These values are passed to the evaluation function and if an evaluation is
@@ -85,45 +157,57 @@ public abstract class AbstractMiniMaxAgent<M extends AbstractMove, G extends Abs
 	}
 
 	/**
+	 * Creates the search kernel that a single search runs on, configured with the
+	 * settings of this Agent.
 	 * 
-	 * @return - group of moves that can be used to modify the game-state.
+	 * @return - a new search.
 	 */
-	private Iterable<M> getMoves() {
-		return moveGenerator.generateMoves(gameState);
-	};
+	protected NegamaxSearch<M, G> createSearch() {
+		NegamaxSearch<M, G> search = new NegamaxSearch<M, G>(moveGenerator, evaluator, positiveTerminalEvaluation,
+				negativeTerminalEvaluation);
+		search.setTranspositionTable(transpositionTable);
+		search.setPrincipalVariationSearch(principalVariationSearch);
+		search.setMoveOrdering(moveOrdering);
+		search.setAspirationWindow(aspirationWindow, aspirationCounter);
+		return search;
+	}
 
 	/**
-	 * 
-	 * @return - an evaluation for the gameState.
+	 * Lets the transposition table know that a new search is starting.
 	 */
-	private int evaluate() {
-		return evaluator.evaluate(gameState, positiveTerminalEvaluation, negativeTerminalEvaluation);
-	};
+	private void newSearch() {
+		if (transpositionTable != null) {
+			transpositionTable.newSearch();
+		}
+	}
 
 	/**
 	 * 
-	 * @param move - the move that will be used to manipulate the game-state.
+	 * @return - provides what the Agent has decided to be the greatest move. Can
+	 *         return null.
 	 */
-	private void makeMove(M move) {
-		gameState.makeMove(move);
-	};
+	public M getBestMove() {
+		return bestMove;
+	}
 
 	/**
 	 * 
-	 * @param move - the move that will be used to undo a call to the makeMove()
-	 *             function that used the same move the game-state.
+	 * @return - the principal variation of the last search, the moves both players
+	 *         are expected to make starting with the best move. Iterative
+	 *         deepening searches return the one from the deepest completed depth.
 	 */
-	private void undoMove(M move) {
-		gameState.undoMove(move);
-	};
+	public List<M> getPrincipalVariation() {
+		return principalVariation;
+	}
 
 	/**
 	 * 
-	 * @return - provides what the Agent has decided to be the greatest move. Can
-	 *         return null.
+	 * @return - what the last search did, empty if the best move came from the
+	 *         opening book. Iterative deepening searches have one iteration for
+	 *         every depth that finished.
 	 */
-	public M getBestMove() {
-		return bestMove;
+	public SearchStatistics getSearchStatistics() {
+		return statistics;
 	}
 
 	/**
@@ -136,195 +220,293 @@ public abstract class AbstractMiniMaxAgent<M extends AbstractMove, G extends Abs
 	}
 
 	/**
-	 * Attempts to find the value minimizing move in the current game-state.
+	 * Sets the transposition table that searches will probe before generating
+	 * moves and store their results in after. Passing null disables the table.
 	 * 
-	 * @param depth - the current depth of the search.
-	 * @param alpha - the current alpha value at this point in the search.
-	 * @param beta  - the current beta value at this point in the search.
-	 * @return - the minimum value of all potential moves.
-	 */
-	private int findMin(int depth, int alpha, int beta) {
-		int evaluation = evaluate();
-		if (depth == maxDepth || evaluation == positiveTerminalEvaluation || evaluation == negativeTerminalEvaluation) {
-			return evaluation;
-		}
-		for (M move : getMoves()) {
-			makeMove(move);
-			move.setValue(findMax(depth + 1, alpha, beta));
-			undoMove(move);
-			if (move.getValue() < beta) {
-				beta = move.getValue();
-				if (depth == MINIMUM_DEPTH) {
-					bestMove = move;
-				}
-			}
-			if (depth != MINIMUM_DEPTH && alpha >= beta) {
-				return Integer.MIN_VALUE;
-			}
-		}
-		return beta;
+	 * @param transpositionTable
+	 */
+	public void setTranspositionTable(TranspositionTable transpositionTable) {
+		this.transpositionTable = transpositionTable;
+	}
+
+	public TranspositionTable getTranspositionTable() {
+		return transpositionTable;
 	}
 
 	/**
-	 * Attempts to find the value maximizing move in the current game-state.
 	 * 
-	 * @param depth - the current depth of the search.
-	 * @param alpha - the current alpha value at this point in the search.
-	 * @param beta  - the current beta value at this point in the search.
-	 * @return - the maximum value of all potential moves.
-	 */
-	private int findMax(int depth, int alpha, int beta) {
-		int evaluation = evaluate();
-		if (depth == maxDepth || evaluation == positiveTerminalEvaluation || evaluation == negativeTerminalEvaluation) {
-			return evaluation;
-		}
-		for (M move : getMoves()) {
-			makeMove(move);
-			move.setValue(findMin(depth + 1, alpha, beta));
-			undoMove(move);
-			if (move.getValue() > alpha) {
-				alpha = move.getValue();
-				if (depth == MINIMUM_DEPTH) {
-					bestMove = move;
-				}
-			}
-			if (depth != MINIMUM_DEPTH && alpha >= beta) {
-				return Integer.MAX_VALUE;
-			}
-		}
-		return alpha;
+	 * @param principalVariationSearch - whether to use Principal Variation Search.
+	 */
+	public void setPrincipalVariationSearch(boolean principalVariationSearch) {
+		this.principalVariationSearch = principalVariationSearch;
 	}
 
-	@Override
-	public M search(int depth, boolean findMax) {
-		maxDepth = depth;
-		if (findMax) {
-			findMax(MINIMUM_DEPTH, ALPHA_BEGINNING_VALUE, BETA_BEGINNING_VALUE);
+	/**
+	 * 
+	 * @param moveOrdering - whether to order moves with the killer move and history
+	 *                     heuristics.
+	 */
+	public void setMoveOrdering(boolean moveOrdering) {
+		this.moveOrdering = moveOrdering;
+	}
+
+	/**
+	 * 
+	 * @param aspirationWindow - half the width of the first aspiration window of
+	 *                         every depth, zero turns aspiration windows off.
+	 */
+	public void setAspirationWindow(int aspirationWindow) {
+		this.aspirationWindow = Integer.max(aspirationWindow, 0);
+	}
+
+	public AspirationCounter getAspirationCounter() {
+		return aspirationCounter;
+	}
+
+	/**
+	 * 
+	 * @param openingBook - book to look game-states up in before searching them,
+	 *                    null turns the book off.
+	 */
+	public void setOpeningBook(OpeningBook<M, G> openingBook) {
+		this.openingBook = openingBook;
+	}
+
+	/**
+	 * 
+	 * @param searchListener - told what every search does while it runs, null
+	 *                       turns it off.
+	 */
+	public void setSearchListener(SearchListener searchListener) {
+		this.searchListener = searchListener;
+	}
+
+	/**
+	 * Turns on the endgame solver mode. Passing a threshold of zero turns it off.
+	 * 
+	 * @param endgameThreshold - game-states with fewer plies left than this are
+	 *                         solved.
+	 * @param evaluator        - used by the solver to tell if a game is over, the
+	 *                         evaluation function of this Agent if null.
+	 */
+	public void setEndgameSolver(int endgameThreshold, EvaluationFunction<G> evaluator) {
+		this.endgameThreshold = Integer.max(endgameThreshold, 0);
+		if (this.endgameThreshold > 0) {
+			endgameSolver = new EndgameSolver<M, G>(moveGenerator, evaluator == null ? this.evaluator : evaluator,
+					positiveTerminalEvaluation, negativeTerminalEvaluation);
 		} else {
-			findMin(MINIMUM_DEPTH, ALPHA_BEGINNING_VALUE, BETA_BEGINNING_VALUE);
+			endgameSolver = null;
 		}
-		return getBestMove();
 	}
 
 	/**
-	 * Attempts to find the value minimizing move in the current game-state. Checks
-	 * if it is interrupted at ever iteration. If it is it throws Exception.
+	 * The most plies the game can have left, Agents of games that always end
+	 * within a known number of plies should override this to use the endgame
+	 * solver.
+	 * 
+	 * @return - Integer.MAX_VALUE by default.
+	 */
+	protected int getRemainingPlies() {
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Solves the game-state with the endgame solver if it is close enough to the
+	 * end of the game.
 	 * 
-	 * @param depth - the current depth of the search.
-	 * @param alpha - the current alpha value at this point in the search.
-	 * @param beta  - the current beta value at this point in the search.
-	 * @return - the minimum value of all potential moves.
-	 * @throws InterruptedException
-	 */
-	private int findMinInterruptable(int depth, int alpha, int beta) throws InterruptedException {
-		if (Thread.currentThread().isInterrupted()) {
-			throw new InterruptedException("Stopped at depth: " + depth);
+	 * @param clock - stops the solver, can be null.
+	 * @return - whether the game-state was solved.
+	 */
+	private boolean solveEndgame(boolean findMax, SearchClock clock) {
+		int plies = getRemainingPlies();
+		if (endgameSolver == null || plies >= endgameThreshold) {
+			return false;
 		}
-		int evaluation = evaluate();
-		if (depth == maxDepth || evaluation == positiveTerminalEvaluation || evaluation == negativeTerminalEvaluation) {
-			return evaluation;
+		endgameSolver.setClock(clock);
+		try {
+			endgameSolver.solve(gameState, plies, findMax);
+		} catch (InterruptedException e) {
+			return false;
 		}
-		for (M move : getMoves()) {
-			makeMove(move);
-			move.setValue(findMaxInterruptable(depth + 1, alpha, beta));
-			undoMove(move);
-			if (move.getValue() < beta) {
-				beta = move.getValue();
-				if (depth == MINIMUM_DEPTH) {
-					bestMove = move;
-				}
-			}
-			if (depth != MINIMUM_DEPTH && alpha >= beta) {
-				return Integer.MIN_VALUE;
-			}
+		if (endgameSolver.getBestMove() == null) {
+			return false;
 		}
-		return beta;
+		bestMove = endgameSolver.getBestMove();
+		principalVariation = endgameSolver.getPrincipalVariation();
+		statistics = endgameSolver.getStatistics();
+		return true;
 	}
 
 	/**
-	 * Attempts to find the value maximizing move in the current game-state. Checks
-	 * if it is interrupted at ever iteration. If it is it throws Exception.
+	 * Looks the game-state up in the opening book and makes the book move the best
+	 * move if it is there.
 	 * 
-	 * @param depth - the current depth of the search.
-	 * @param alpha - the current alpha value at this point in the search.
-	 * @param beta  - the current beta value at this point in the search.
-	 * @return - the maximum value of all potential moves.
-	 * @throws InterruptedException
-	 */
-	private int findMaxInterruptable(int depth, int alpha, int beta) throws InterruptedException {
-		if (Thread.currentThread().isInterrupted()) {
-			throw new InterruptedException("Stopped at depth: " + depth);
+	 * @return - whether the game-state was in the book.
+	 */
+	private boolean searchOpeningBook() {
+		M move = openingBook == null ? null : openingBook.getMove(gameState);
+		if (move == null) {
+			return false;
 		}
-		int evaluation = evaluate();
-		if (depth == maxDepth || evaluation == positiveTerminalEvaluation || evaluation == negativeTerminalEvaluation) {
-			return evaluation;
+		bestMove = move;
+		principalVariation = Collections.singletonList(move);
+		statistics = new SearchStatistics();
+		return true;
+	}
+
+	/**
+	 * Turns on Lazy SMP for iterative deepening searches. A transposition table is
+	 * created if this Agent does not have one yet since it is the only way the
+	 * helpers communicate with this Agent. Passing zero helper threads turns Lazy
+	 * SMP off. The helper threads are daemon threads so they never keep the JVM
+	 * running.
+	 * 
+	 * @param copier        - used to give every helper its own game-state.
+	 * @param helperThreads - number of helper threads to search with.
+	 */
+	public void setLazySMP(DeepCopy<G> copier, int helperThreads) {
+		if (helperExecutor != null) {
+			helperExecutor.shutdownNow();
+			helperExecutor = null;
 		}
-		for (M move : getMoves()) {
-			makeMove(move);
-			move.setValue(findMinInterruptable(depth + 1, alpha, beta));
-			undoMove(move);
-			if (move.getValue() > alpha) {
-				alpha = move.getValue();
-				if (depth == MINIMUM_DEPTH) {
-					bestMove = move;
+		this.copier = copier;
+		this.helperThreads = Integer.max(helperThreads, 0);
+		if (this.helperThreads > 0) {
+			helperExecutor = Executors.newFixedThreadPool(this.helperThreads, new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+					thread.setDaemon(true);
+					return thread;
 				}
-			}
-			if (depth != MINIMUM_DEPTH && alpha >= beta) {
-				return Integer.MAX_VALUE;
+
+			});
+			if (transpositionTable == null) {
+				transpositionTable = new TranspositionTable();
 			}
 		}
-		return alpha;
 	}
 
 	/**
-	 * Runs a single search that can be interrupted if it goes over time.
+	 * Starts the Lazy SMP helpers. Every other helper starts one depth deeper than
+	 * this Agent so that the helpers are usually filling in the table ahead of it.
 	 * 
-	 * @param depth
-	 * @param findMax
-	 * @return
-	 * @throws InterruptedException
+	 * @return - the running helpers.
 	 */
-	private M searchInterruptable(int depth, boolean findMax) throws InterruptedException {
-		if (Thread.currentThread().isInterrupted()) {
+	private List<Future<?>> startHelpers(int minDepth, int maxDepth, boolean findMax, SearchClock clock) {
+		List<Future<?>> helpers = new ArrayList<Future<?>>(helperThreads);
+		for (int i = 0; i < helperThreads; ++i) {
+			NegamaxSearch<M, G> helper = createSearch();
+			helper.setClock(clock);
+			G helperState = copier.deepCopy(gameState);
+			int startDepth = Integer.min(minDepth + (i + 1) % 2, maxDepth);
+			helpers.add(helperExecutor.submit(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						for (int depth = startDepth; depth <= maxDepth; ++depth) {
+							helper.search(helperState, depth, findMax);
+						}
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+
+			}));
+		}
+		return helpers;
+	}
+
+	/**
+	 * Interrupts all of the helpers that are still searching.
+	 * 
+	 * @param helpers
+	 */
+	private void stopHelpers(List<Future<?>> helpers) {
+		for (Future<?> helper : helpers) {
+			helper.cancel(true);
+		}
+	}
+
+	/**
+	 * The search always finishes, it does not stop if the calling thread is
+	 * interrupted.
+	 */
+	@Override
+	public M search(int depth, boolean findMax) {
+		if (searchOpeningBook() || solveEndgame(findMax, null)) {
 			return getBestMove();
 		}
+		newSearch();
 		maxDepth = depth;
-		if (findMax) {
-			findMaxInterruptable(MINIMUM_DEPTH, ALPHA_BEGINNING_VALUE, BETA_BEGINNING_VALUE);
-		} else {
-			findMinInterruptable(MINIMUM_DEPTH, ALPHA_BEGINNING_VALUE, BETA_BEGINNING_VALUE);
+		NegamaxSearch<M, G> search = createSearch();
+		search.setListener(searchListener);
+		search.setInterruptible(false);
+		statistics = search.getStatistics();
+		try {
+			search.searchIteration(gameState, depth, findMax);
+		} catch (InterruptedException e) {
+			// Without a clock or an interrupt nothing stops the search.
+			throw new IllegalStateException(e);
 		}
+		bestMove = search.getBestMove();
+		principalVariation = search.getPrincipalVariation();
 		return getBestMove();
 	}
 
+	/**
+	 * Searches one depth after another on the calling thread until maxDepth is
+	 * reached or the SearchClock says to stop. The clock stops the search in the
+	 * middle of a depth once the time is up and does not start a depth that is
+	 * not expected to finish in time. A depth that proves a win or a loss ends the
+	 * search right away since deeper depths can not change the result. The best
+	 * move of the deepest depth that finished is returned.
+	 * 
+	 * The endgame solver is given the soft limit of the time, if it can not solve
+	 * the game-state in time the rest of the time is used to search it. If the
+	 * calling thread is interrupted the search stops and the interrupt status is
+	 * left set.
+	 */
 	@Override
 	public M searchIterativeDeepening(int minDepth, int maxDepth, boolean findMax, long time) {
-		Callable<M> iterativeSearch = new Callable<M>() {
-			long startTime = System.currentTimeMillis();
-			long timeLeft = 0;
-			@Override
-			public M call() throws Exception {
-				M bestMoveSoFar = null;
-				for (int depth = minDepth; depth <= maxDepth; ++depth) {
-					try {
-						M deeperMove = searchInterruptable(depth, findMax);
-						bestMoveSoFar = deeperMove;
-						timeLeft = (DEFAULT_DELAYMS - (System.currentTimeMillis() - startTime));
-					} catch (InterruptedException e) {
-						return bestMoveSoFar;
-					}
+		SearchClock solverClock = new SearchClock((long) (time * SearchClock.DEFAULT_SOFT_LIMIT_FRACTION));
+		if (searchOpeningBook() || solveEndgame(findMax, solverClock)) {
+			return getBestMove();
+		}
+		newSearch();
+		bestMove = null;
+		principalVariation = Collections.emptyList();
+		SearchClock clock = new SearchClock(time - solverClock.getElapsedTime());
+		NegamaxSearch<M, G> search = createSearch();
+		search.setClock(clock);
+		search.setListener(searchListener);
+		statistics = search.getStatistics();
+		List<Future<?>> helpers = startHelpers(minDepth, maxDepth, findMax, clock);
+		try {
+			for (int depth = minDepth; depth <= maxDepth && clock.canStartIteration(); ++depth) {
+				this.maxDepth = depth;
+				long nodes = search.getNodes();
+				int value = search.searchIteration(gameState, depth, findMax);
+				clock.finishIteration(search.getNodes() - nodes);
+				bestMove = search.getBestMove();
+				principalVariation = search.getPrincipalVariation();
+				if (search.isProven(value)) {
+					break;
 				}
-				return bestMoveSoFar;
 			}
-
-		};
-		Future<M> futureMove = xs.submit(iterativeSearch);
-
-		try {
-			futureMove.get(time, TimeUnit.MILLISECONDS);
-		} catch (InterruptedException | ExecutionException | TimeoutException e) {
-			futureMove.cancel(true);
+		} catch (InterruptedException e) {
+			if (bestMove == null) {
+				bestMove = search.getBestMove();
+			}
+			// A stop that did not come from the clock came from an interrupt, which
+			// the caller has to see just like after search().
+			if (!clock.isHardLimitReached()) {
+				Thread.currentThread().interrupt();
+			}
 		}
+		stopHelpers(helpers);
 		return getBestMove();
 	}
 
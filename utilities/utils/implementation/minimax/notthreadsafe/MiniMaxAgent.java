@@ -19,7 +19,7 @@ public interface MiniMaxAgent<M extends AbstractMove> {
 	 * Performs a Min-Max search on the game tree with the given maximum-depth.
 	 * 
 	 * @param depth   - maximum depth that the game-tree should be searched.
-	 * @param findMax - whether to call findMax() or findMin() first.
+	 * @param findMax - whether the maximizing player is to move.
 	 */
 	public M search(int depth, boolean findMax);
 
@@ -31,7 +31,7 @@ public interface MiniMaxAgent<M extends AbstractMove> {
 	 * 
 	 * @param minDepth - the minimum depth to start searching
 	 * @param maxDepth - the maximum depth to search till on the last iteration.
-	 * @param findMax  - whether to call findMax() or findMin() first.
+	 * @param findMax  - whether the maximizing player is to move.
 	 */
 	public M searchIterativeDeepening(int minDepth, int maxDepth, boolean findMax, long time);
 
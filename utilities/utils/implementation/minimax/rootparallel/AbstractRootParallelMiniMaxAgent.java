@@ -0,0 +1,174 @@
+package utils.implementation.minimax.rootparallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import utils.implementation.core.AbstractGameState;
+import utils.implementation.core.AbstractMove;
+import utils.implementation.core.DeepCopy;
+import utils.implementation.core.EvaluationFunction;
+import utils.implementation.core.MoveGeneration;
+import utils.implementation.minimax.core.NegamaxSearch;
+import utils.implementation.minimax.core.SearchListener;
+import utils.implementation.minimax.threadsafe.AbstractThreadSafeMiniMaxAgent;
+
+/**
+ * Thread safe Agent that splits the root moves up between the threads of an
+ * executor. Every root move is searched by its own worker on its own copy of
+ * the game-state, which the worker walks with makeMove() and undoMove(). The
+ * workers share the best root value found so far through an AtomicInteger. A
+ * worker that starts after another one has finished searches with that value as
+ * its bound so it can prune much more of its tree.
+ * 
+ * The executor is not shut down by the Agent, so it can be shared between
+ * several Agents.
+ * 
+ * @author Riley McCuen
+ *
+ * @param <M> - abstract move implementation
+ * @param <G> - game-state implementation
+ */
+public abstract class AbstractRootParallelMiniMaxAgent<M extends AbstractMove, G extends AbstractGameState<M>>
+		extends AbstractThreadSafeMiniMaxAgent<M, G> {
+
+	protected ExecutorService workers;
+
+	/**
+	 * 
+	 * Instantiates a MiniMaxAgent that has the default terminalEvaluation values of
+	 * +/-100.
+	 * 
+	 * @param copier
+	 * @param moveGenerator
+	 * @param evaluator
+	 * @param workers       - executor that the root moves are searched on.
+	 */
+	protected AbstractRootParallelMiniMaxAgent(DeepCopy<G> copier, MoveGeneration<M, G> moveGenerator,
+			EvaluationFunction<G> evaluator, ExecutorService workers) {
+		super(copier, moveGenerator, evaluator);
+		this.workers = workers;
+	}
+
+	/**
+	 * 
+	 * Instantiates a MiniMaxAgent that has custom terminalEvaluation values.
+	 * 
+	 * @param copier
+	 * @param moveGenerator
+	 * @param evaluator
+	 * @param workers       - executor that the root moves are searched on.
+	 */
+	public AbstractRootParallelMiniMaxAgent(DeepCopy<G> copier, MoveGeneration<M, G> moveGenerator,
+			EvaluationFunction<G> evaluator, int positiveTerminalEvaluation, int negativeTerminalEvaluation,
+			ExecutorService workers) {
+		super(copier, moveGenerator, evaluator, positiveTerminalEvaluation, negativeTerminalEvaluation);
+		this.workers = workers;
+	}
+
+	/**
+	 * Submits one worker per root move and waits for all of them. Interrupting the
+	 * calling thread cancels every worker, and the workers stop at the time limit
+	 * of the clock of the search. The workers add their statistics to the ones of
+	 * the search, where the depth is recorded as an iteration. The listener of the
+	 * search is told about the depth and about every root move from the worker
+	 * that searched it.
+	 */
+	@Override
+	protected M searchIteration(NegamaxSearch<M, G> search, G gameState, int depth, boolean findMax)
+			throws InterruptedException {
+		if (Thread.currentThread().isInterrupted()) {
+			throw new InterruptedException();
+		}
+		int evaluation = evaluate(gameState);
+		if (depth <= MINIMUM_DEPTH || evaluation == positiveTerminalEvaluation
+				|| evaluation == negativeTerminalEvaluation) {
+			return super.searchIteration(search, gameState, depth, findMax);
+		}
+		long startTime = System.nanoTime();
+		long startNodes = search.getNodes();
+		SearchListener listener = search.getListener();
+		Object iteration = listener == null ? null : listener.iterationStarted(depth);
+		RootBound bound = new RootBound(findMax ? ALPHA_BEGINNING_VALUE : BETA_BEGINNING_VALUE, findMax);
+		List<Callable<Void>> rootMoves = new ArrayList<Callable<Void>>();
+		for (M move : getMoves(gameState)) {
+			rootMoves.add(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					G child = makeMove(copier.deepCopy(gameState), move);
+					if (findMax) {
+						move.setValue(
+								searchChild(child, move, depth, bound.get(), BETA_BEGINNING_VALUE, true, search));
+					} else {
+						move.setValue(
+								searchChild(child, move, depth, ALPHA_BEGINNING_VALUE, bound.get(), false, search));
+					}
+					bound.offer(move);
+					return null;
+				}
+
+			});
+		}
+		try {
+			for (Future<Void> rootMove : workers.invokeAll(rootMoves)) {
+				try {
+					rootMove.get();
+				} catch (ExecutionException e) {
+					throw stopOrRethrow(e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			if (listener != null) {
+				listener.iterationStopped(iteration, depth, search.getNodes() - startNodes,
+						System.nanoTime() - startTime, search.isTimedOut());
+			}
+			throw e;
+		}
+		M move = bound.getBestMove();
+		int value = move == null ? 0 : move.getValue();
+		long time = System.nanoTime() - startTime;
+		search.getStatistics().finishIteration(depth, value, search.getNodes() - startNodes, time);
+		if (listener != null) {
+			listener.iterationFinished(iteration, depth, value, search.getNodes() - startNodes, time);
+		}
+		return move;
+	}
+
+	/**
+	 * The best root value and move found so far. The value is read without locking
+	 * by workers that are starting their search.
+	 */
+	private class RootBound {
+
+		private final AtomicInteger value;
+		private final boolean maximizing;
+		private M bestMove = null;
+
+		private RootBound(int value, boolean maximizing) {
+			this.value = new AtomicInteger(value);
+			this.maximizing = maximizing;
+		}
+
+		private int get() {
+			return value.get();
+		}
+
+		private synchronized void offer(M move) {
+			if (maximizing ? move.getValue() > value.get() : move.getValue() < value.get()) {
+				value.set(move.getValue());
+				bestMove = move;
+			}
+		}
+
+		private synchronized M getBestMove() {
+			return bestMove;
+		}
+
+	}
+
+}
@@ -0,0 +1,190 @@
+package utils.implementation.minimax.tables;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size transposition table that is backed by a single preallocated
+ * primitive array so that probing and storing never allocate. Every bucket
+ * holds two entries, the first is depth-preferred and is only replaced by
+ * deeper (or newer) results while the second is always replaced. Each entry is
+ * a key followed by a packed long holding the score, remaining depth, bound type
+ * and the index of the best move in the order that the MoveGeneration produced
+ * it.
+ *
+ * Probes return the packed entry directly and the static accessors are used to
+ * read the fields out of it. A probe that misses returns MISS.
+ *
+ * The table is lock-free and can be shared by several searching threads. The
+ * key of an entry is stored XORed with its data so an entry that was torn by
+ * two threads writing at the same time no longer matches its key and is
+ * treated as a miss.
+ *
+ * @author Riley McCuen
+ *
+ */
+public class TranspositionTable {
+
+	/**
+	 * Bound types that can be stored with a score.
+	 */
+	public static final int EXACT = 0;
+	public static final int LOWER_BOUND = 1;
+	public static final int UPPER_BOUND = 2;
+
+	/**
+	 * Move index stored when no best move is known.
+	 */
+	public static final int NO_MOVE = -1;
+
+	/**
+	 * Returned by probe() when the key is not in the table.
+	 */
+	public static final long MISS = 0L;
+
+	public static final int DEFAULT_NUMBER_OF_BUCKETS = 1 << 20;
+	public static final int MAXIMUM_DEPTH = 0xFF;
+	public static final int MAXIMUM_MOVE_INDEX = 0xFE;
+
+	/**
+	 * Layout of a single bucket inside of the table array.
+	 */
+	private static final int LONGS_PER_ENTRY = 2;
+	private static final int LONGS_PER_BUCKET = 2 * LONGS_PER_ENTRY;
+	private static final int DEPTH_PREFERRED = 0;
+	private static final int ALWAYS_REPLACE = LONGS_PER_ENTRY;
+	private static final int DATA = 1;
+
+	/**
+	 * Layout of the packed data long.
+	 */
+	private static final int DEPTH_SHIFT = 32;
+	private static final int BOUND_SHIFT = 40;
+	private static final int MOVE_SHIFT = 42;
+	private static final int GENERATION_SHIFT = 50;
+	private static final long VALID = 1L << 58;
+	private static final long DEPTH_MASK = 0xFF;
+	private static final long BOUND_MASK = 0x3;
+	private static final long MOVE_MASK = 0xFF;
+	private static final long GENERATION_MASK = 0xFF;
+	private static final long SCORE_MASK = 0xFFFFFFFFL;
+
+	private final long[] table;
+	private final int bucketMask;
+	private volatile int generation = 0;
+
+	/**
+	 * Creates a table with at least the given number of buckets, the number is
+	 * rounded up to the next power of two.
+	 *
+	 * @param numberOfBuckets
+	 */
+	public TranspositionTable(int numberOfBuckets) {
+		int buckets = Integer.highestOneBit(Integer.max(numberOfBuckets, 1));
+		if (buckets < numberOfBuckets) {
+			buckets <<= 1;
+		}
+		this.bucketMask = buckets - 1;
+		this.table = new long[buckets * LONGS_PER_BUCKET];
+	}
+
+	public TranspositionTable() {
+		this(DEFAULT_NUMBER_OF_BUCKETS);
+	}
+
+	/**
+	 * Should be called once before every new search so that entries from older
+	 * searches can be replaced in the depth-preferred slots.
+	 */
+	public void newSearch() {
+		generation = (int) ((generation + 1) & GENERATION_MASK);
+	}
+
+	/**
+	 * Empties the whole table.
+	 */
+	public void clear() {
+		Arrays.fill(table, 0L);
+		generation = 0;
+	}
+
+	/**
+	 *
+	 * @param key - the key of the game-state to look up.
+	 * @return - the packed entry for the key or MISS if it is not in the table.
+	 */
+	public long probe(long key) {
+		int bucket = bucketIndex(key);
+		long data = table[bucket + DEPTH_PREFERRED + DATA];
+		if ((table[bucket + DEPTH_PREFERRED] ^ data) == key && (data & VALID) != 0) {
+			return data;
+		}
+		data = table[bucket + ALWAYS_REPLACE + DATA];
+		if ((table[bucket + ALWAYS_REPLACE] ^ data) == key && (data & VALID) != 0) {
+			return data;
+		}
+		return MISS;
+	}
+
+	/**
+	 * Stores a search result. The depth-preferred slot is used if the result is at
+	 * least as deep as the one already there, if it is for the same key or if the
+	 * old one is from a previous search, otherwise the always-replace slot is used.
+	 *
+	 * @param key       - the key of the game-state that was searched.
+	 * @param depth     - the remaining depth the game-state was searched to.
+	 * @param bound     - EXACT, LOWER_BOUND or UPPER_BOUND.
+	 * @param score     - the score found by the search.
+	 * @param moveIndex - the index of the best move or NO_MOVE.
+	 */
+	public void store(long key, int depth, int bound, int score, int moveIndex) {
+		int bucket = bucketIndex(key);
+		long data = pack(depth, bound, score, moveIndex);
+		long preferred = table[bucket + DEPTH_PREFERRED + DATA];
+		if ((preferred & VALID) == 0 || (table[bucket + DEPTH_PREFERRED] ^ preferred) == key
+				|| getDepth(preferred) <= depth || getGeneration(preferred) != generation) {
+			table[bucket + DEPTH_PREFERRED] = key ^ data;
+			table[bucket + DEPTH_PREFERRED + DATA] = data;
+		} else {
+			table[bucket + ALWAYS_REPLACE] = key ^ data;
+			table[bucket + ALWAYS_REPLACE + DATA] = data;
+		}
+	}
+
+	private int bucketIndex(long key) {
+		return (int) ((key ^ (key >>> 32)) & bucketMask) * LONGS_PER_BUCKET;
+	}
+
+	private long pack(int depth, int bound, int score, int moveIndex) {
+		depth = Integer.min(Integer.max(depth, 0), MAXIMUM_DEPTH);
+		long move = (moveIndex < 0 || moveIndex > MAXIMUM_MOVE_INDEX) ? 0 : moveIndex + 1;
+		return VALID | ((long) generation << GENERATION_SHIFT) | (move << MOVE_SHIFT)
+				| (((long) bound & BOUND_MASK) << BOUND_SHIFT) | ((long) depth << DEPTH_SHIFT)
+				| ((long) score & SCORE_MASK);
+	}
+
+	private static int getGeneration(long entry) {
+		return (int) ((entry >>> GENERATION_SHIFT) & GENERATION_MASK);
+	}
+
+	public static int getScore(long entry) {
+		return (int) entry;
+	}
+
+	public static int getDepth(long entry) {
+		return (int) ((entry >>> DEPTH_SHIFT) & DEPTH_MASK);
+	}
+
+	public static int getBound(long entry) {
+		return (int) ((entry >>> BOUND_SHIFT) & BOUND_MASK);
+	}
+
+	public static int getMoveIndex(long entry) {
+		return (int) ((entry >>> MOVE_SHIFT) & MOVE_MASK) - 1;
+	}
+
+	@Override
+	public String toString() {
+		return "Transposition table with " + (bucketMask + 1) + " buckets";
+	}
+
+}
@@ -2,18 +2,20 @@ package utils.implementation.minimax.threadsafe;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import utils.implementation.core.AbstractGameState;
 import utils.implementation.core.AbstractMove;
 import utils.implementation.core.DeepCopy;
 import utils.implementation.core.EvaluationFunction;
 import utils.implementation.core.MoveGeneration;
-import utils.implementation.core.MutableMove;
+import utils.implementation.minimax.book.OpeningBook;
+import utils.implementation.minimax.core.NegamaxSearch;
+import utils.implementation.minimax.core.SearchClock;
+import utils.implementation.minimax.core.SearchListener;
+import utils.implementation.minimax.core.SearchStatistics;
+import utils.performance.AspirationCounter;
 
 public abstract class AbstractThreadSafeMiniMaxAgent<M extends AbstractMove, G extends AbstractGameState<M>>
 		implements ThreadSafeMiniMaxAgent<M, G> {
@@ -21,12 +23,42 @@ public abstract class AbstractThreadSafeMiniMaxAgent<M extends AbstractMove, G e
 	public static final int ALPHA_BEGINNING_VALUE = Integer.MIN_VALUE;
 	public static final int BETA_BEGINNING_VALUE = Integer.MAX_VALUE;
 	public static final long DEFAULT_SEARCH_TIME_MS = 5000;
+	public static final int DEFAULT_MINIMUM_SPLIT_DEPTH = 3;
 
 	protected DeepCopy<G> copier;
 	protected MoveGeneration<M, G> moveGenerator;
 	protected EvaluationFunction<G> evaluator;
-	protected final ExecutorService xs = Executors.newSingleThreadScheduledExecutor();
 	protected M bestMove = null;
+	protected SearchStatistics statistics = new SearchStatistics();
+
+	/**
+	 * Young Brothers Wait search mode. When a pool is set every node with at least
+	 * minimumSplitDepth plies left below it searches its eldest child on its own
+	 * to establish a bound and then forks the rest of the children into the pool.
+	 */
+	protected ForkJoinPool forkJoinPool = null;
+	protected int minimumSplitDepth = DEFAULT_MINIMUM_SPLIT_DEPTH;
+
+	/**
+	 * Aspiration windows for iterative searches. When aspirationWindow is more
+	 * than zero every depth after the first is searched with a window that wide on
+	 * each side of the value of the depth before. Re-searches are counted by the
+	 * aspirationCounter.
+	 */
+	protected int aspirationWindow = 0;
+	protected final AspirationCounter aspirationCounter = new AspirationCounter();
+
+	/**
+	 * Optional opening book that is looked up before every search. A game-state
+	 * that is in the book is not searched at all, its book move is returned.
+	 */
+	protected OpeningBook<M, G> openingBook = null;
+
+	/**
+	 * Optional listener that is told about every depth and every root move of the
+	 * searches of this Agent, nothing is reported without one.
+	 */
+	protected SearchListener searchListener = null;
 
 	/**
 	 * These values are passed to the evaluation function and if an evaluation is
@@ -73,7 +105,7 @@ public abstract class AbstractThreadSafeMiniMaxAgent<M extends AbstractMove, G e
 	 * 
 	 * @return - group of moves that can be used to modify the game-state.
 	 */
-	private Iterable<M> getMoves(G gameState) {
+	protected Iterable<M> getMoves(G gameState) {
 		return moveGenerator.generateMoves(gameState);
 	};
 
@@ -81,7 +113,7 @@ public abstract class AbstractThreadSafeMiniMaxAgent<M extends AbstractMove, G e
 	 * 
 	 * @return - an evaluation for the gameState.
 	 */
-	private int evaluate(G gameState) {
+	protected int evaluate(G gameState) {
 		return evaluator.evaluate(gameState, positiveTerminalEvaluation, negativeTerminalEvaluation);
 	};
 
@@ -89,7 +121,7 @@ public abstract class AbstractThreadSafeMiniMaxAgent<M extends AbstractMove, G e
 	 * 
 	 * @param move - the move that will be used to manipulate the game-state.
 	 */
-	private G makeMove(G gameState, M move) {
+	protected G makeMove(G gameState, M move) {
 		gameState.makeMove(move);
 		return gameState;
 	};
@@ -104,115 +136,288 @@ public abstract class AbstractThreadSafeMiniMaxAgent<M extends AbstractMove, G e
 	}
 
 	/**
-	 * Attempts to find the value minimizing move in the current game-state. Checks
-	 * if it is interrupted at ever iteration. If it is it throws Exception.
 	 * 
-	 * @param depth - the current depth of the search.
-	 * @param alpha - the current alpha value at this point in the search.
-	 * @param beta  - the current beta value at this point in the search.
-	 * @return - the minimum value of all potential moves.
+	 * @return - what the last search did, empty if the best move came from the
+	 *         opening book. The nodes of every thread of the search are counted.
+	 */
+	public SearchStatistics getSearchStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Turns on the Young Brothers Wait search mode, passing null turns it off.
+	 * 
+	 * @param forkJoinPool - pool that the younger siblings are forked into.
+	 */
+	public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * 
+	 * @param minimumSplitDepth - the least number of plies that must be left below
+	 *                          a node for its children to be searched in parallel.
+	 */
+	public void setMinimumSplitDepth(int minimumSplitDepth) {
+		this.minimumSplitDepth = Integer.max(minimumSplitDepth, 1);
+	}
+
+	/**
+	 * 
+	 * @param aspirationWindow - half the width of the first aspiration window of
+	 *                         every depth, zero turns aspiration windows off.
+	 */
+	public void setAspirationWindow(int aspirationWindow) {
+		this.aspirationWindow = Integer.max(aspirationWindow, 0);
+	}
+
+	public AspirationCounter getAspirationCounter() {
+		return aspirationCounter;
+	}
+
+	/**
+	 * 
+	 * @param openingBook - book to look game-states up in before searching them,
+	 *                    null turns the book off.
+	 */
+	public void setOpeningBook(OpeningBook<M, G> openingBook) {
+		this.openingBook = openingBook;
+	}
+
+	/**
+	 * 
+	 * @param searchListener - told what every search does while it runs, null
+	 *                       turns it off.
+	 */
+	public void setSearchListener(SearchListener searchListener) {
+		this.searchListener = searchListener;
+	}
+
+	/**
+	 * The book makes moves on the game-state it looks up so it is given a copy,
+	 * which is only made once the game-state is known to be in the book.
+	 * 
+	 * @return - the book move of the game-state or null if it is not in the book.
+	 */
+	private M getBookMove(G gameState) {
+		if (openingBook == null || !openingBook.contains(gameState)) {
+			return null;
+		}
+		return openingBook.getMove(copier.deepCopy(gameState));
+	}
+
+	/**
+	 * Creates the search kernel that a single search runs on. The search walks the
+	 * tree with makeMove() and undoMove() on the game-state it is given, so every
+	 * search has to be given its own copy.
+	 * 
+	 * @return - a new search.
+	 */
+	protected NegamaxSearch<M, G> createSearch() {
+		return new NegamaxSearch<M, G>(moveGenerator, evaluator, positiveTerminalEvaluation,
+				negativeTerminalEvaluation);
+	}
+
+	/**
+	 * Searches a child of the root with the given window. Useful for Agents that
+	 * split the root moves up between several threads themselves. The child is
+	 * searched one ply below the root so wins and losses are scored the same as
+	 * by a search of the root.
+	 * 
+	 * @param child      - copy of the root game-state with the move already made,
+	 *                   the search makes and undoes moves on it.
+	 * @param move       - the move that leads to the child.
+	 * @param maxDepth   - the depth to search until.
+	 * @param alpha      - the alpha value to search the child with.
+	 * @param beta       - the beta value to search the child with.
+	 * @param maximizing - whether the maximizing player is to move at the root.
+	 * @param root       - the search of the root, the child is stopped by its
+	 *                   clock, its statistics are added to the root's and it is
+	 *                   reported to the root's listener.
+	 * @return - the value of the child.
 	 * @throws InterruptedException
 	 */
-	private int findMin(G gameState, MutableMove<M> bestMove, int depth, int maxDepth, int alpha, int beta)
-			throws InterruptedException {
+	protected int searchChild(G child, M move, int maxDepth, int alpha, int beta, boolean maximizing,
+			NegamaxSearch<M, G> root) throws InterruptedException {
+		NegamaxSearch<M, G> search = createSearch();
+		search.setClock(root.getClock());
+		SearchListener listener = root.getListener();
+		Object rootMove = listener == null ? null : listener.rootMoveStarted(move, maxDepth);
+		long startTime = listener == null ? 0 : System.nanoTime();
+		try {
+			int value = search.searchBelowRoot(child, 1, maxDepth - 1, alpha, beta, !maximizing);
+			if (listener != null) {
+				listener.rootMoveFinished(rootMove, move, maxDepth, value, search.getNodes(),
+						System.nanoTime() - startTime);
+			}
+			return value;
+		} finally {
+			root.getStatistics().addConcurrently(search.getStatistics());
+		}
+	}
+
+	@Override
+	public M search(G gameState, int depth, boolean findMax) throws InterruptedException {
 		if (Thread.currentThread().isInterrupted()) {
 			throw new InterruptedException();
 		}
-		int evaluation = evaluate(gameState);
-		if (depth == maxDepth || evaluation == positiveTerminalEvaluation || evaluation == negativeTerminalEvaluation) {
-			return evaluation;
+		M bookMove = getBookMove(gameState);
+		if (bookMove != null) {
+			bestMove = bookMove;
+			statistics = new SearchStatistics();
+			return bookMove;
 		}
-		for (M move : getMoves(gameState)) {
-			move.setValue(
-					findMax(makeMove(copier.deepCopy(gameState), move), bestMove, depth + 1, maxDepth, alpha, beta));
-			if (move.getValue() < beta) {
-				beta = move.getValue();
-				if (depth == 0) {
-					bestMove.setMove(move);
-				}
-			}
-			if (alpha >= beta) {
-				return Integer.MIN_VALUE;
+		NegamaxSearch<M, G> search = createRootSearch();
+		statistics = search.getStatistics();
+		G state = copier.deepCopy(gameState);
+		return run(search, new Callable<M>() {
+
+			@Override
+			public M call() throws Exception {
+				return searchIteration(search, state, depth, findMax);
 			}
+
+		});
+	}
+
+	/**
+	 * 
+	 * @return - the search to run at the root, the Young Brothers Wait search if
+	 *         there is a fork join pool.
+	 */
+	private NegamaxSearch<M, G> createRootSearch() {
+		NegamaxSearch<M, G> search;
+		if (forkJoinPool != null) {
+			search = new ForkJoinNegamaxSearch<M, G>(moveGenerator, evaluator, positiveTerminalEvaluation,
+					negativeTerminalEvaluation, copier, minimumSplitDepth);
+		} else {
+			search = createSearch();
 		}
-		return beta;
+		search.setAspirationWindow(aspirationWindow, aspirationCounter);
+		search.setListener(searchListener);
+		return search;
 	}
 
 	/**
-	 * Attempts to find the value maximizing move in the current game-state. Checks
-	 * if it is interrupted at ever iteration. If it is it throws Exception.
+	 * Runs a search to the given depth on the calling thread. The game-state is
+	 * the copy that belongs to this search, moves are made and undone on it but it
+	 * is left as it was. The same search is given every depth of an iterative
+	 * deepening search so each depth starts from the principal variation and the
+	 * aspiration window of the one before, and it is stopped by the clock of the
+	 * search. Agents that split the root up themselves override this.
 	 * 
-	 * @param depth - the current depth of the search.
-	 * @param alpha - the current alpha value at this point in the search.
-	 * @param beta  - the current beta value at this point in the search.
-	 * @return - the maximum value of all potential moves.
+	 * @param search    - the search to run.
+	 * @param gameState - the copy of the game-state to search.
+	 * @param depth     - the depth to search until.
+	 * @param findMax   - whether the maximizing player is to move.
+	 * @return - the best move.
 	 * @throws InterruptedException
 	 */
-	private int findMax(G gameState, MutableMove<M> bestMove, int depth, int maxDepth, int alpha, int beta)
+	protected M searchIteration(NegamaxSearch<M, G> search, G gameState, int depth, boolean findMax)
 			throws InterruptedException {
-		if (Thread.currentThread().isInterrupted()) {
-			throw new InterruptedException();
-		}
-		int evaluation = evaluate(gameState);
-		if (depth == maxDepth || evaluation == positiveTerminalEvaluation || evaluation == negativeTerminalEvaluation) {
-			return evaluation;
-		}
-		for (M move : getMoves(gameState)) {
-			move.setValue(
-					findMin(makeMove(copier.deepCopy(gameState), move), bestMove, depth + 1, maxDepth, alpha, beta));
-			if (move.getValue() > alpha) {
-				alpha = move.getValue();
-				if (depth == 0) {
-					bestMove.setMove(move);
-				}
-			}
-			if (alpha >= beta) {
-				return Integer.MAX_VALUE;
+		search.searchIteration(gameState, depth, findMax);
+		return search.getBestMove();
+	}
+
+	/**
+	 * Runs a task that searches with the given search. With a fork join pool the
+	 * task is run inside of the pool so that nodes can fork their children into it,
+	 * otherwise it is run on the calling thread. Interrupting the calling thread
+	 * aborts every task of the search.
+	 */
+	private M run(NegamaxSearch<M, G> search, Callable<M> task) throws InterruptedException {
+		if (forkJoinPool == null) {
+			try {
+				return task.call();
+			} catch (Exception e) {
+				throw stopOrRethrow(e);
 			}
 		}
-		return alpha;
+		ForkJoinTask<M> result = forkJoinPool.submit(task);
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			search.stop();
+			throw e;
+		} catch (ExecutionException e) {
+			throw stopOrRethrow(e.getCause());
+		}
 	}
 
-	@Override
-	public M search(G gameState, int depth, boolean findMax) throws InterruptedException {
-		if (Thread.currentThread().isInterrupted()) {
-			throw new InterruptedException();
+	/**
+	 * Sorts out why a task of a search failed. A task that was stopped failed with
+	 * an InterruptedException, which is somewhere in the causes if the task ran on
+	 * another thread, and it is returned so it can be thrown. Anything else is a
+	 * bug in the search or in the game and is thrown unchecked instead of being
+	 * mistaken for a time out.
+	 * 
+	 * @param failure - what the task threw.
+	 * @return - the InterruptedException that stopped the task.
+	 */
+	protected static InterruptedException stopOrRethrow(Throwable failure) {
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			if (cause instanceof InterruptedException) {
+				return (InterruptedException) cause;
+			}
 		}
-		MutableMove<M> move = new MutableMove<>();
-		if (findMax) {
-			findMax(gameState, move, 0, depth, ALPHA_BEGINNING_VALUE, BETA_BEGINNING_VALUE);
-		} else {
-			findMin(gameState, move, 0, depth, ALPHA_BEGINNING_VALUE, BETA_BEGINNING_VALUE);
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
 		}
-		return move.getMove();
+		throw new RuntimeException(failure);
 	}
 
+	/**
+	 * Iterative deepening search that is controlled by a SearchClock. Every depth
+	 * is run by the same search on the same copy of the game-state, inside of the
+	 * fork join pool if there is one. A new depth is only started if the clock
+	 * expects it to finish, and a depth that reaches the time limit is stopped by
+	 * the search itself, so the best move of the last depth that finished is
+	 * returned right at the time limit. A depth that proves a win or a loss ends
+	 * the search right away.
+	 */
 	@Override
 	public M iterativeSearch(G gameState, int minDepth, int maxDepth, boolean findMax, long time) {
-		long timeLeft = time;
-		int depth = minDepth;
-		while (depth++ < maxDepth) {
-			int _depth = depth;
-			long startTime = System.currentTimeMillis();
-			Callable<M> search = new Callable<M>() {
-
-				@Override
-				public M call() throws Exception {
-					return search(copier.deepCopy(gameState), _depth, findMax);
-				}
+		M bookMove = getBookMove(gameState);
+		if (bookMove != null) {
+			bestMove = bookMove;
+			statistics = new SearchStatistics();
+			return bookMove;
+		}
+		SearchClock clock = new SearchClock(time);
+		NegamaxSearch<M, G> iterations = createRootSearch();
+		iterations.setClock(clock);
+		statistics = iterations.getStatistics();
+		G state = copier.deepCopy(gameState);
+		Callable<M> search = new Callable<M>() {
 
-			};
-			Future<M> searchResult = xs.submit(search);
-			try {
-				M move = searchResult.get(timeLeft, TimeUnit.MILLISECONDS);
-				this.bestMove = move;
-				long timeTaken = System.currentTimeMillis() - startTime;
-				timeLeft -= timeTaken;
-			} catch (InterruptedException | ExecutionException | TimeoutException e) {
+			@Override
+			public M call() throws Exception {
+				int depth = minDepth;
+				try {
+					while (depth++ < maxDepth && clock.canStartIteration()) {
+						long nodes = iterations.getNodes();
+						M move = searchIteration(iterations, state, depth, findMax);
+						clock.finishIteration(iterations.getNodes() - nodes);
+						bestMove = move;
+						if (move == null || iterations.isProven(move.getValue())) {
+							break;
+						}
+					}
+				} catch (InterruptedException e) {
+				}
 				return getBestMove();
 			}
+
+		};
+		try {
+			return run(iterations, search);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return getBestMove();
 		}
-		return getBestMove();
 	}
 
 	/**
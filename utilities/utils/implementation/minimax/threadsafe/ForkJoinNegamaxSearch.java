@@ -0,0 +1,282 @@
+package utils.implementation.minimax.threadsafe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import utils.implementation.core.AbstractGameState;
+import utils.implementation.core.AbstractMove;
+import utils.implementation.core.DeepCopy;
+import utils.implementation.core.EvaluationFunction;
+import utils.implementation.core.MoveGeneration;
+import utils.implementation.minimax.core.MoveList;
+import utils.implementation.minimax.core.NegamaxSearch;
+import utils.implementation.minimax.tables.TranspositionTable;
+
+/**
+ * Young Brothers Wait version of the search. Every node with at least
+ * minimumSplitDepth plies left below it searches its eldest child on its own to
+ * establish a bound and then forks the rest of the children into the fork join
+ * pool that the search is running in. Every forked child is searched by its own
+ * ForkJoinNegamaxSearch on its own copy of the game-state. Copies are only made
+ * at these split points, every search walks its part of the tree with
+ * makeMove() and undoMove() on its own copy.
+ *
+ * @author Riley McCuen
+ *
+ * @param <M> - abstract move implementation
+ * @param <G> - game-state implementation
+ */
+class ForkJoinNegamaxSearch<M extends AbstractMove, G extends AbstractGameState<M>> extends NegamaxSearch<M, G> {
+
+	private final DeepCopy<G> splitCopier;
+	private final int minimumSplitDepth;
+
+	/**
+	 * The closest split point above every node this search visits. Aborting it
+	 * stops this search and every search forked below it.
+	 */
+	private final SplitPoint<M> splitPoint;
+
+	ForkJoinNegamaxSearch(MoveGeneration<M, G> moveGenerator, EvaluationFunction<G> evaluator,
+			int positiveTerminalEvaluation, int negativeTerminalEvaluation, DeepCopy<G> copier,
+			int minimumSplitDepth, SplitPoint<M> splitPoint) {
+		super(moveGenerator, evaluator, positiveTerminalEvaluation, negativeTerminalEvaluation);
+		this.splitCopier = copier;
+		this.minimumSplitDepth = minimumSplitDepth;
+		this.splitPoint = splitPoint;
+	}
+
+	/**
+	 * Creates the search that runs at the root, it is stopped by aborting its split
+	 * point.
+	 */
+	ForkJoinNegamaxSearch(MoveGeneration<M, G> moveGenerator, EvaluationFunction<G> evaluator,
+			int positiveTerminalEvaluation, int negativeTerminalEvaluation, DeepCopy<G> copier,
+			int minimumSplitDepth) {
+		this(moveGenerator, evaluator, positiveTerminalEvaluation, negativeTerminalEvaluation, copier,
+				minimumSplitDepth, new SplitPoint<M>(null, 0, -INFINITY, null, TranspositionTable.NO_MOVE));
+	}
+
+	@Override
+	public void stop() {
+		super.stop();
+		splitPoint.abort();
+	}
+
+	@Override
+	protected boolean shouldStop() {
+		return super.shouldStop() || splitPoint.isAborted();
+	}
+
+	@Override
+	protected int searchMoves(G gameState, int ply, int depth, int alpha, int beta, int color, long key,
+			int hashMoveIndex) throws InterruptedException {
+		if (depth < minimumSplitDepth) {
+			return super.searchMoves(gameState, ply, depth, alpha, beta, color, key, hashMoveIndex);
+		}
+		// Most sibling searches end before they visit enough nodes to poll, so every
+		// split point checks if the search should stop as well.
+		if (shouldStop()) {
+			throw new InterruptedException("Stopped at ply: " + ply);
+		}
+		MoveList<M> moves = orderedMoves(gameState, ply, color, hashMoveIndex);
+		if (moves.size() == 0) {
+			return -INFINITY;
+		}
+		M eldest = moves.get(0);
+		int eldestIndex = moves.getGeneratedIndex(0);
+		int best = searchChild(gameState, eldest, ply, depth, alpha, beta, color, true);
+		if (ply == 0) {
+			bestMove = eldest;
+		}
+		if (best > alpha) {
+			updatePrincipalVariation(ply, eldest, eldestIndex, this);
+		}
+		if (best >= beta) {
+			statistics.incrementBetaCutoffs(0);
+			store(key, ply, depth, TranspositionTable.LOWER_BOUND, best, eldestIndex, color);
+			return best;
+		}
+		SplitPoint<M> siblings = new SplitPoint<M>(splitPoint, Integer.max(alpha, best), best, eldest, eldestIndex);
+		List<SiblingTask> tasks = new ArrayList<SiblingTask>(moves.size() - 1);
+		for (int index = 1; index < moves.size(); ++index) {
+			tasks.add(new SiblingTask(gameState, moves.get(index), moves.getGeneratedIndex(index), ply, depth, beta,
+					color, siblings));
+		}
+		ForkJoinTask.invokeAll(tasks);
+		for (SiblingTask task : tasks) {
+			if (task.search != null) {
+				statistics.add(task.search.getStatistics());
+			}
+		}
+		best = siblings.getBest();
+		if (siblings.isCutoff()) {
+			// The sibling that failed high finished its search, so it is the best move
+			// and its principal variation is complete.
+			if (ply == 0) {
+				bestMove = siblings.getBestMove();
+			}
+			for (int index = 0; index < tasks.size(); ++index) {
+				SiblingTask task = tasks.get(index);
+				if (task.move == siblings.getBestMove()) {
+					statistics.incrementBetaCutoffs(index + 1);
+					updatePrincipalVariation(ply, task.move, task.moveIndex, task.search);
+				}
+			}
+			store(key, ply, depth, TranspositionTable.LOWER_BOUND, best, siblings.getBestMoveIndex(), color);
+			return best;
+		}
+		for (SiblingTask task : tasks) {
+			if (task.getRawResult() == null) {
+				throw new InterruptedException();
+			}
+		}
+		if (ply == 0) {
+			bestMove = siblings.getBestMove();
+		}
+		for (SiblingTask task : tasks) {
+			if (task.move == siblings.getBestMove() && best > alpha) {
+				updatePrincipalVariation(ply, task.move, task.moveIndex, task.search);
+			}
+		}
+		store(key, ply, depth, best > alpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND, best,
+				siblings.getBestMoveIndex(), color);
+		return best;
+	}
+
+	/**
+	 * Searches a single younger sibling in the fork join pool. The result is null
+	 * if the search was aborted. The parent game-state is not touched until every
+	 * sibling has finished, so the siblings can all copy it at the same time.
+	 */
+	private class SiblingTask extends RecursiveTask<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final G parentState;
+		private final M move;
+		private final int moveIndex, ply, depth, beta, color;
+		private final SplitPoint<M> splitPoint;
+		private ForkJoinNegamaxSearch<M, G> search = null;
+
+		private SiblingTask(G parentState, M move, int moveIndex, int ply, int depth, int beta, int color,
+				SplitPoint<M> splitPoint) {
+			this.parentState = parentState;
+			this.move = move;
+			this.moveIndex = moveIndex;
+			this.ply = ply;
+			this.depth = depth;
+			this.beta = beta;
+			this.color = color;
+			this.splitPoint = splitPoint;
+		}
+
+		@Override
+		protected Integer compute() {
+			search = new ForkJoinNegamaxSearch<M, G>(moveGenerator, evaluator, positiveTerminalEvaluation,
+					negativeTerminalEvaluation, splitCopier, minimumSplitDepth, splitPoint);
+			search.setClock(clock);
+			// Root moves are reported by the root search, the listener is never set on
+			// the sibling searches.
+			boolean report = ply == 0 && listener != null;
+			Object rootMove = report ? listener.rootMoveStarted(move, depth) : null;
+			long startTime = report ? System.nanoTime() : 0;
+			try {
+				G child = splitCopier.deepCopy(parentState);
+				child.makeMove(move);
+				int value = -search.negamax(child, ply + 1, depth - 1, -beta, -splitPoint.getAlpha(), -color);
+				if (ply == 0) {
+					move.setValue(color * value);
+					if (report) {
+						listener.rootMoveFinished(rootMove, move, depth, color * value, search.getNodes(),
+								System.nanoTime() - startTime);
+					}
+				}
+				splitPoint.offer(move, moveIndex, value, beta);
+				return value;
+			} catch (InterruptedException e) {
+				return null;
+			}
+		}
+
+	}
+
+	/**
+	 * Shared state of a node whose younger siblings are being searched in
+	 * parallel. Holds the node's alpha, the best value and move found so far and
+	 * whether the node has been cut off. Split points are linked to the one above
+	 * them so a cutoff anywhere above a node aborts it.
+	 */
+	static class SplitPoint<M extends AbstractMove> {
+
+		private final SplitPoint<M> parent;
+		private volatile int alpha;
+		private volatile boolean aborted = false;
+		private int best;
+		private M bestMove;
+		private int bestMoveIndex;
+
+		SplitPoint(SplitPoint<M> parent, int alpha, int best, M bestMove, int bestMoveIndex) {
+			this.parent = parent;
+			this.alpha = alpha;
+			this.best = best;
+			this.bestMove = bestMove;
+			this.bestMoveIndex = bestMoveIndex;
+		}
+
+		boolean isAborted() {
+			for (SplitPoint<M> splitPoint = this; splitPoint != null; splitPoint = splitPoint.parent) {
+				if (splitPoint.aborted) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		boolean isCutoff() {
+			return aborted;
+		}
+
+		void abort() {
+			aborted = true;
+		}
+
+		int getAlpha() {
+			return alpha;
+		}
+
+		synchronized int getBest() {
+			return best;
+		}
+
+		synchronized M getBestMove() {
+			return bestMove;
+		}
+
+		synchronized int getBestMoveIndex() {
+			return bestMoveIndex;
+		}
+
+		/**
+		 * Records the value of a sibling, raising alpha if it is better and aborting
+		 * the other siblings if it is good enough for a cutoff.
+		 */
+		synchronized void offer(M move, int moveIndex, int value, int beta) {
+			if (value > best) {
+				best = value;
+				bestMove = move;
+				bestMoveIndex = moveIndex;
+				if (value > alpha) {
+					alpha = value;
+					if (value >= beta) {
+						aborted = true;
+					}
+				}
+			}
+		}
+
+	}
+
+}
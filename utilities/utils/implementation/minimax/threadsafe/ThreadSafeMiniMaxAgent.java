@@ -25,7 +25,7 @@ public interface ThreadSafeMiniMaxAgent<M extends AbstractMove, G extends Abstra
 	 * 
 	 * @param gameState - the current gameState to perform a search on.
 	 * @param depth     - the depth to search until.
-	 * @param findMax   - whether to call findMax() first or not.
+	 * @param findMax   - whether the maximizing player is to move.
 	 * @return - best move found.
 	 * @throws InterruptedException - if the search runs out of time this should be
 	 *                              propagated out to the iterative deepening search
@@ -38,7 +38,7 @@ public interface ThreadSafeMiniMaxAgent<M extends AbstractMove, G extends Abstra
 	 * 
 	 * @param minDepth  - minimum depth to start iterative deepening from.
 	 * @param maxDepth  - the deepest depth that iterative deepening will search to.
-	 * @param findMax   - whether to call findMax() first or not.
+	 * @param findMax   - whether the maximizing player is to move.
 	 * @param time      - the amount of time to allow the search to run. This does
 	 *                  not include the amount of time to start and stop the search.
 	 *                  Depending on the complexity of your implementations this can
@@ -0,0 +1,84 @@
+package utils.performance;
+
+/**
+ *
+ * This class is used to perform a performance evaluation of aspiration windows
+ * by counting how many iterations were searched with an aspiration window and
+ * how many times the window failed and the iteration had to be searched again.
+ * The counts are StripedCounters so searches running at the same time can
+ * share a counter.
+ *
+ * @author Riley McCuen
+ *
+ */
+
+public class AspirationCounter extends Object {
+
+	/**
+	 * The number of iterations searched with an aspiration window.
+	 */
+	private final StripedCounter numAspirationSearches = new StripedCounter();
+
+	/**
+	 * The number of times the value was at or below the window.
+	 */
+	private final StripedCounter numFailLows = new StripedCounter();
+
+	/**
+	 * The number of times the value was at or above the window.
+	 */
+	private final StripedCounter numFailHighs = new StripedCounter();
+
+	public AspirationCounter() {
+	}
+
+	public long getNumAspirationSearches() {
+		return numAspirationSearches.sum();
+	}
+
+	public long getNumFailLows() {
+		return numFailLows.sum();
+	}
+
+	public long getNumFailHighs() {
+		return numFailHighs.sum();
+	}
+
+	/**
+	 *
+	 * @return - the number of times an iteration had to be searched again.
+	 */
+	public long getNumReSearches() {
+		return numFailLows.sum() + numFailHighs.sum();
+	}
+
+	public void incrementNumAspirationSearches() {
+		numAspirationSearches.increment();
+	}
+
+	public void incrementNumFailLows() {
+		numFailLows.increment();
+	}
+
+	public void incrementNumFailHighs() {
+		numFailHighs.increment();
+	}
+
+	/**
+	 * Resets the counter to get ready for another search.
+	 */
+	public void resetCounter() {
+		numAspirationSearches.reset();
+		numFailLows.reset();
+		numFailHighs.reset();
+	}
+
+	/**
+	 * Provides a nice string with the number of re-searches.
+	 */
+	public String toString() {
+		return "Number of Aspiration Searches: " + getNumAspirationSearches() + ", Number of Re-Searches: "
+				+ getNumReSearches() + " (Fail Lows: " + getNumFailLows() + ", Fail Highs: " + getNumFailHighs() + ")";
+	}
+
+}
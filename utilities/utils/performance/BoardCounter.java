@@ -3,7 +3,9 @@ package utils.performance;
 /**
  * 
  * This class is used to perform a performance evaluation by counting the number
- * of boards that have been evaluated in this search.
+ * of boards that have been evaluated in this search. The count is a
+ * StripedCounter so threads that search in parallel can share a counter
+ * without slowing each other down.
  * 
  * @author Riley McCuen
  *
@@ -14,7 +16,7 @@ public class BoardCounter extends Object {
 	/**
 	 * The number of boards that have been evaluated in this search.
 	 */
-	private long numBoardsEvaluated = 0;
+	private final StripedCounter numBoardsEvaluated = new StripedCounter();
 
 	public BoardCounter() {
 	}
@@ -26,7 +28,7 @@ public class BoardCounter extends Object {
 	 * @return - the number of boards evaluated.
 	 */
 	public long getNumBoardsEvaluated() {
-		return numBoardsEvaluated;
+		return numBoardsEvaluated.sum();
 	}
 
 	/**
@@ -34,21 +36,21 @@ public class BoardCounter extends Object {
 	 * number of boards evaluated by 1.
 	 */
 	public void incrementNumBoardsEvaluated() {
-		numBoardsEvaluated += 1;
+		numBoardsEvaluated.increment();
 	}
 
 	/**
 	 * Resets the counter to get ready for another search.
 	 */
 	public void resetCounter() {
-		numBoardsEvaluated = 0;
+		numBoardsEvaluated.reset();
 	}
 
 	/**
 	 * Provides a nice string with the number of boards evaluated.
 	 */
 	public String toString() {
-		return "Number of Boards Evaluated: " + numBoardsEvaluated;
+		return "Number of Boards Evaluated: " + numBoardsEvaluated.sum();
 	}
 
 }
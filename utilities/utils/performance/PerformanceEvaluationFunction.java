@@ -6,7 +6,8 @@ import utils.implementation.core.EvaluationFunction;
 /**
  * 
  * This class is made to test the performance of any Agent by counting the
- * number of boards that it has calculated in a search.
+ * number of boards that it has calculated in a search. It can be shared by
+ * threads that evaluate at the same time, see BoardCounter.
  * 
  * @author Riley McCuen
  *
@@ -14,8 +15,8 @@ import utils.implementation.core.EvaluationFunction;
  */
 public class PerformanceEvaluationFunction<G extends AbstractGameState<?>> implements EvaluationFunction<G> {
 
-	private BoardCounter counter;
-	private EvaluationFunction<G> evaluator;
+	private final BoardCounter counter;
+	private final EvaluationFunction<G> evaluator;
 
 	public PerformanceEvaluationFunction(EvaluationFunction<G> evaluator) {
 		this.counter = new BoardCounter();
@@ -28,7 +29,7 @@ public class PerformanceEvaluationFunction<G extends AbstractGameState<?>> imple
 	@Override
 	public int evaluate(G gameState, int positiveTerminalEvaluation, int negativeTerminalEvaluation) {
 		counter.incrementNumBoardsEvaluated();
-		return evaluator.evaluate(gameState, negativeTerminalEvaluation, negativeTerminalEvaluation);
+		return evaluator.evaluate(gameState, positiveTerminalEvaluation, negativeTerminalEvaluation);
 	}
 
 	public long getCount() {
@@ -36,7 +37,7 @@ public class PerformanceEvaluationFunction<G extends AbstractGameState<?>> imple
 	}
 
 	public void resetCounter() {
-		this.counter = new BoardCounter();
+		this.counter.resetCounter();
 	}
 
 	public String getCounterString() {
@@ -0,0 +1,94 @@
+package utils.performance;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ *
+ * Counter that can be incremented by many threads at once without losing
+ * counts and without the threads fighting over a single cache line. The count
+ * is split into stripes, every thread adds to the stripe its id hashes to and
+ * reading the counter adds the stripes up. Every stripe sits on its own pair of
+ * cache lines, so threads on different stripes never invalidate each other's
+ * caches. Two threads that hash to the same stripe still count correctly, they
+ * only share a cache line.
+ *
+ * A read while threads are still counting may miss the latest increments, a
+ * read after they are done is exact.
+ *
+ * @author Riley McCuen
+ *
+ */
+public class StripedCounter {
+
+	/**
+	 * Longs between the start of two stripes, 128 bytes keeps every stripe clear
+	 * of the cache line that is prefetched next to its own.
+	 */
+	private static final int PADDING = 16;
+
+	private final AtomicLongArray stripes;
+	private final int mask;
+
+	/**
+	 * Creates a counter with a stripe for every processor.
+	 */
+	public StripedCounter() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 *
+	 * @param numberOfStripes - rounded up to a power of two.
+	 */
+	public StripedCounter(int numberOfStripes) {
+		int size = Integer.highestOneBit(Integer.max(numberOfStripes, 1) * 2 - 1);
+		this.mask = size - 1;
+		// One extra stripe in front keeps the first one clear of the array header.
+		this.stripes = new AtomicLongArray((size + 1) * PADDING);
+	}
+
+	/**
+	 *
+	 * @return - position of the stripe of the calling thread in the array.
+	 */
+	private int stripe() {
+		long id = Thread.currentThread().getId();
+		int hash = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32);
+		return ((hash & mask) + 1) * PADDING;
+	}
+
+	public void increment() {
+		stripes.getAndIncrement(stripe());
+	}
+
+	public void add(long amount) {
+		stripes.getAndAdd(stripe(), amount);
+	}
+
+	/**
+	 *
+	 * @return - the count, the sum of every stripe.
+	 */
+	public long sum() {
+		long sum = 0;
+		for (int stripe = PADDING; stripe < stripes.length(); stripe += PADDING) {
+			sum += stripes.get(stripe);
+		}
+		return sum;
+	}
+
+	/**
+	 * Resets the counter to zero, increments made at the same time may be lost.
+	 */
+	public void reset() {
+		for (int stripe = PADDING; stripe < stripes.length(); stripe += PADDING) {
+			stripes.set(stripe, 0);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Long.toString(sum());
+	}
+
+}